@@ -0,0 +1,32 @@
+package pl.codewise.canaveral.addon.spring.provider;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
+
+/**
+ * Exposes properties of the runner configuration, ex. endpoints of mocks, to Spring environment. Added with the
+ * highest precedence, the same as system properties had before.
+ */
+public class RunnerPropertySource extends EnumerablePropertySource<ScopedProperties> {
+
+    public static final String NAME = "canaveralRunnerProperties";
+
+    public RunnerPropertySource(ScopedProperties properties) {
+        super(NAME, properties);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return getSource().asMap().keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return getSource().get(name);
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return getSource().contains(name);
+    }
+}
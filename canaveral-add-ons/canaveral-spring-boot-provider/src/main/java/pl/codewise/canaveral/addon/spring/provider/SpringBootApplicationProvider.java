@@ -6,11 +6,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
 import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.runtime.ProgressAssertion;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 public class SpringBootApplicationProvider implements ApplicationProvider, SpringContextProvider {
@@ -53,11 +57,18 @@ public class SpringBootApplicationProvider implements ApplicationProvider, Sprin
     @Override
     public void start(RunnerContext runnerContext) {
         port = runnerContext.getFreePort();
-        System.setProperty("server.port", Integer.toString(port));
+        runnerContext.getProperties().set("server.port", Integer.toString(port));
 
         SpringApplication application = new SpringApplication(springBaseClass);
         application
                 .addListeners(event -> log.debug("Got Application event. {}", event));
+        Map<String, Object> ownPort = Collections.singletonMap("server.port", Integer.toString(port));
+        application.addInitializers(context -> {
+            MutablePropertySources propertySources = context.getEnvironment().getPropertySources();
+            propertySources.addFirst(new RunnerPropertySource(runnerContext.getProperties()));
+            // other applications started by the runner publish their server.port as well
+            propertySources.addFirst(new MapPropertySource("canaveralApplicationPort", ownPort));
+        });
         application.setRegisterShutdownHook(false);
         springContext = application.run();
     }
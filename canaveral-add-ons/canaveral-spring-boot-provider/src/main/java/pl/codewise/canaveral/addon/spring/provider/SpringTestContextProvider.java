@@ -8,6 +8,7 @@ import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import pl.codewise.canaveral.core.ApplicationProvider;
@@ -53,13 +54,15 @@ public class SpringTestContextProvider implements TestContextProvider {
                 .getFeatureToggleManager();
         log.info("Configuring test context with {}.", configurations);
 
-        PropertySourcesPlaceholderConfigurer systemPropertyConfigurer = getSystemPropertyConfigurer();
+        PropertySourcesPlaceholderConfigurer systemPropertyConfigurer = getSystemPropertyConfigurer(context);
         ApplicationContext applicationContext = getApplicationSpringContext(context);
         PropertySourcesPlaceholderConfigurer propertyConfigurer =
                 getLocationPropertyConfigurer(testPropertyFile, applicationContext);
         try {
             springContext = new AnnotationConfigApplicationContext();
             springContext.setParent(applicationContext);
+            springContext.getEnvironment().getPropertySources()
+                    .addFirst(new RunnerPropertySource(context.getProperties()));
             DefaultListableBeanFactory beanFactory = springContext.getDefaultListableBeanFactory();
             beanFactory.registerSingleton("systemPropertySourcesPlaceholderConfigurer", systemPropertyConfigurer);
             beanFactory.registerSingleton("propertySourcesPlaceholderConfigurer", propertyConfigurer);
@@ -120,11 +123,13 @@ public class SpringTestContextProvider implements TestContextProvider {
                 .orElseGet(() -> applicationContext.getBean(PropertySourcesPlaceholderConfigurer.class));
     }
 
-    private PropertySourcesPlaceholderConfigurer getSystemPropertyConfigurer() {
+    private PropertySourcesPlaceholderConfigurer getSystemPropertyConfigurer(RunnerContext context) {
         PropertySourcesPlaceholderConfigurer systemPropertyConfigurer = new PropertySourcesPlaceholderConfigurer();
         systemPropertyConfigurer.setIgnoreResourceNotFound(true);
         systemPropertyConfigurer.setIgnoreUnresolvablePlaceholders(true);
-        systemPropertyConfigurer.setPropertySources(new StandardEnvironment().getPropertySources());
+        MutablePropertySources propertySources = new StandardEnvironment().getPropertySources();
+        propertySources.addFirst(new RunnerPropertySource(context.getProperties()));
+        systemPropertyConfigurer.setPropertySources(propertySources);
         return systemPropertyConfigurer;
     }
 
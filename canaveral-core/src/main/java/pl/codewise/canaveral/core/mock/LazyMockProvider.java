@@ -0,0 +1,26 @@
+package pl.codewise.canaveral.core.mock;
+
+import pl.codewise.canaveral.core.runtime.RunnerContext;
+
+/**
+ * Mock which can be started in two steps, so runner configured with lazy mock startup can publish its port and
+ * endpoint up front and start the actual server only when test or application needs it.
+ */
+public interface LazyMockProvider extends MockProvider {
+
+    /**
+     * Reserves port and publishes all properties, ex. endpoint, without starting the server.
+     */
+    void prepare(RunnerContext context) throws Exception;
+
+    /**
+     * Starts the server on port reserved by {@link #prepare(RunnerContext)}.
+     */
+    void startPrepared(RunnerContext context) throws Exception;
+
+    @Override
+    default void start(RunnerContext context) throws Exception {
+        prepare(context);
+        startPrepared(context);
+    }
+}
@@ -5,4 +5,11 @@ public interface MockConfig<T> {
     String HOST = "localhost";
 
     T build(String mockName);
+
+    /**
+     * @return resources taken by the mock while it starts, light by default.
+     */
+    default MockCost getCost() {
+        return MockCost.LIGHT;
+    }
 }
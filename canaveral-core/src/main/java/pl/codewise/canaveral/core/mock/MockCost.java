@@ -0,0 +1,97 @@
+package pl.codewise.canaveral.core.mock;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Resources taken by a mock while it starts, declared by {@link MockConfig#getCost()}. Runner starts light mocks right
+ * away and throttles the others, so environments started at the same time do not thrash the machine. Heavy mocks,
+ * ex. ones running a docker container, are limited across all test JVMs of the machine.
+ */
+public final class MockCost {
+
+    public static final MockCost LIGHT = new MockCost(false, 0, 0);
+
+    private final boolean heavy;
+    private final int threads;
+    private final int memoryMb;
+
+    private MockCost(boolean heavy, int threads, int memoryMb) {
+        Preconditions.checkArgument(threads >= 0, "Threads cannot be negative.");
+        Preconditions.checkArgument(memoryMb >= 0, "Memory cannot be negative.");
+        this.heavy = heavy;
+        this.threads = threads;
+        this.memoryMb = memoryMb;
+    }
+
+    public static MockCost light() {
+        return LIGHT;
+    }
+
+    public static MockCost heavy() {
+        return new MockCost(true, 1, 0);
+    }
+
+    /**
+     * @param threads busy while mock starts.
+     */
+    public MockCost withThreads(int threads) {
+        return new MockCost(heavy, threads, memoryMb);
+    }
+
+    /**
+     * @param memoryMb taken by mock, including memory of processes it runs.
+     */
+    public MockCost withMemoryMb(int memoryMb) {
+        return new MockCost(heavy, threads, memoryMb);
+    }
+
+    public boolean isHeavy() {
+        return heavy;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getMemoryMb() {
+        return memoryMb;
+    }
+
+    /**
+     * @return whether mock can start without waiting for any budget.
+     */
+    public boolean isLight() {
+        return !heavy && threads == 0 && memoryMb == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MockCost that = (MockCost) o;
+        return heavy == that.heavy &&
+                threads == that.threads &&
+                memoryMb == that.memoryMb;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(heavy, threads, memoryMb);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("heavy", heavy)
+                .add("threads", threads)
+                .add("memoryMb", memoryMb)
+                .toString();
+    }
+}
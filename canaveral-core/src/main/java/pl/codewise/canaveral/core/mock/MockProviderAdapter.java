@@ -50,7 +50,7 @@ public abstract class MockProviderAdapter<MockType>
         port = initialize(context);
         propertiesSetters.forEach((name, consumer) -> {
             String value = consumer.apply(mock);
-            System.setProperty(name, value);
+            context.getProperties().set(name, value);
         });
     }
 
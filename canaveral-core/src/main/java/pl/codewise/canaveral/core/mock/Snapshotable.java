@@ -0,0 +1,20 @@
+package pl.codewise.canaveral.core.mock;
+
+import pl.codewise.canaveral.core.runtime.RunnerContext;
+
+/**
+ * Mock which can capture its state and return to it later without reloading resources or restarting its server.
+ * Runner captures state of all such mocks once all mocks are created, see {@link RunnerContext#snapshotAll()}.
+ */
+public interface Snapshotable {
+
+    /**
+     * Captures current state, replacing previously captured one.
+     */
+    void takeSnapshot();
+
+    /**
+     * Returns to the last captured state.
+     */
+    void restoreSnapshot();
+}
@@ -0,0 +1,144 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits for several conditions concurrently under a single deadline. Each condition is checked again whenever
+ * a mock signals progress (see {@link RunnerContext#signalProgress()}) and otherwise polled with backoff growing from
+ * {@link #MIN_POLL_INTERVAL} to {@link #MAX_POLL_INTERVAL}. Time spent on each condition is recorded in
+ * {@link StartupReport} as {@code progress.<name>}.
+ *
+ * <pre>
+ * AwaitedProgress.within(Duration.ofMinutes(1))
+ *         .until("registered", context -&gt; isRegistered())
+ *         .until("cacheWarm", context -&gt; isCacheWarm())
+ *         .build();
+ * </pre>
+ */
+public class AwaitedProgress implements ProgressAssertion {
+
+    private static final Logger log = LoggerFactory.getLogger(AwaitedProgress.class);
+
+    static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(5);
+    static final Duration MAX_POLL_INTERVAL = Duration.ofMillis(200);
+
+    private final Duration deadline;
+    private final Map<String, ProgressAssertion> conditions;
+
+    private AwaitedProgress(Duration deadline, Map<String, ProgressAssertion> conditions) {
+        this.deadline = deadline;
+        this.conditions = conditions;
+    }
+
+    public static Builder within(Duration deadline) {
+        return new Builder(deadline);
+    }
+
+    /**
+     * @return whether all conditions were met before the deadline.
+     */
+    @Override
+    public boolean canProceed(RunnerContext runnerContext) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        if (conditions.size() == 1) {
+            Map.Entry<String, ProgressAssertion> condition = conditions.entrySet().iterator().next();
+            try {
+                return await(condition.getKey(), condition.getValue(), runnerContext, deadlineNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(conditions.size(), new ThreadFactoryBuilder()
+                .setNameFormat("canaveral-progress-%d")
+                .setDaemon(true)
+                .build());
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            conditions.forEach((name, condition) ->
+                    results.add(executor.submit(() -> await(name, condition, runnerContext, deadlineNanos))));
+
+            boolean allMet = true;
+            for (Future<Boolean> result : results) {
+                allMet &= result.get(Math.max(0, deadlineNanos - System.nanoTime()) + MAX_POLL_INTERVAL.toNanos(),
+                        TimeUnit.NANOSECONDS);
+            }
+            return allMet;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not check progress.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean await(String name, ProgressAssertion condition, RunnerContext context, long deadlineNanos)
+            throws InterruptedException {
+        ProgressSignal signal = context instanceof RunnerCache ? ((RunnerCache) context).getProgressSignal() :
+                new ProgressSignal();
+        try (StartupReport.Measurement ignored = context.getStartupReport().measure("progress." + name)) {
+            long interval = MIN_POLL_INTERVAL.toNanos();
+            while (true) {
+                long seenGeneration = signal.generation();
+                if (condition.canProceed(context)) {
+                    log.debug("Progress condition {} met.", name);
+                    return true;
+                }
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("Progress condition {} not met in time.", name);
+                    return false;
+                }
+                signal.awaitNext(seenGeneration, Math.min(interval, remaining));
+                interval = Math.min(interval * 2, MAX_POLL_INTERVAL.toNanos());
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final Duration deadline;
+        private final Map<String, ProgressAssertion> conditions = new LinkedHashMap<>();
+
+        private Builder(Duration deadline) {
+            Preconditions.checkArgument(deadline != null && !deadline.isNegative(), "Deadline cannot be negative.");
+            this.deadline = deadline;
+        }
+
+        /**
+         * @param condition checked without blocking, ex. returns whether application is registered right now.
+         */
+        public Builder until(String name, ProgressAssertion condition) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "Condition name cannot be empty.");
+            Preconditions.checkArgument(!conditions.containsKey(name), "Condition " + name + " already defined.");
+            conditions.put(name, Preconditions.checkNotNull(condition));
+            return this;
+        }
+
+        public AwaitedProgress build() {
+            Preconditions.checkArgument(!conditions.isEmpty(), "At least one condition is required.");
+            return new AwaitedProgress(deadline, new LinkedHashMap<>(conditions));
+        }
+    }
+}
@@ -6,6 +6,8 @@ import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.mock.MockProvider;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -13,6 +15,10 @@ public class DummyRunnerContext implements RunnerContext {
 
     private static final Logger logger = LoggerFactory.getLogger(DummyRunnerContext.class);
 
+    private final ScopedProperties properties = new ScopedProperties();
+    private final VirtualClock clock = new VirtualClock();
+    private final StartupReport startupReport = new StartupReport(DummyRunnerContext.class.getSimpleName());
+
     @Override
     public RunnerConfiguration getConfiguration() {
         throw new RuntimeException("this implementation is for testing purposes.");
@@ -38,6 +44,16 @@ public class DummyRunnerContext implements RunnerContext {
         return null;
     }
 
+    @Override
+    public ApplicationProvider getApplicationProvider(String name) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ApplicationProvider> getApplicationProviders() {
+        return Collections.emptyMap();
+    }
+
     @Override
     public boolean hasTestConfigurationProvider() {
         return false;
@@ -48,6 +64,11 @@ public class DummyRunnerContext implements RunnerContext {
         return null;
     }
 
+    @Override
+    public Object getApplicationBean(String applicationName, Class<?> beanType, Set<Annotation> knownAnnotations) {
+        return null;
+    }
+
     @Override
     public Object getTestBean(Class<?> beanType, Set<Annotation> qualifier) {
         return null;
@@ -68,6 +89,38 @@ public class DummyRunnerContext implements RunnerContext {
         return null;
     }
 
+    @Override
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    @Override
+    public ScopedProperties getProperties() {
+        return properties;
+    }
+
+    @Override
+    public void snapshotAll() {
+    }
+
+    @Override
+    public void restoreAll() {
+    }
+
+    @Override
+    public void signalProgress() {
+    }
+
+    @Override
+    public boolean isWarmingUp() {
+        return false;
+    }
+
+    @Override
+    public VirtualClock getClock() {
+        return clock;
+    }
+
     @Override
     public void register(LifeCycleListener listener) {
         throw new RuntimeException("this implementation is for testing purposes.");
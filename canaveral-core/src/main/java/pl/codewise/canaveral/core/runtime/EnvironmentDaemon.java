@@ -0,0 +1,161 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.dns.NameStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process hosting mocks of a single configuration for many test JVMs, see
+ * {@link RunnerConfiguration.Builder#withSharedEnvironment()} and
+ * {@link RunnerConfiguration.Builder#withKeepWarmEnvironment()}. Every attached JVM receives properties
+ * published by the mocks and routes they registered in {@link NameStore}. Daemon stops mocks and exits once no JVM
+ * was attached for given idle time.
+ */
+public class EnvironmentDaemon {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvironmentDaemon.class);
+
+    private final RunnerCache runnerCache;
+    private final byte[] publishedProperties;
+    private final long idleSeconds;
+    private final boolean restoreOnAttach;
+    private final AtomicInteger attached = new AtomicInteger();
+    private final ExecutorService clients = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("canaveral-environment-client-%d")
+            .setDaemon(true)
+            .build());
+    private final ScheduledExecutorService idleCheck = Executors.newSingleThreadScheduledExecutor();
+
+    private EnvironmentDaemon(RunnerCache runnerCache, Properties publishedProperties, long idleSeconds,
+            boolean restoreOnAttach) throws IOException {
+        this.runnerCache = runnerCache;
+        this.idleSeconds = idleSeconds;
+        this.restoreOnAttach = restoreOnAttach;
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        publishedProperties.store(content, "Published by " + runnerCache.getProviderName());
+        this.publishedProperties = content.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        RunnerConfigurationProvider provider = (RunnerConfigurationProvider) Class.forName(args[0])
+                .getConstructor()
+                .newInstance();
+        Path portFile = Paths.get(args[1]);
+
+        RunnerCache runnerCache = Runner.instance().startMocks(provider);
+        Properties published = runnerCache.getProperties().toProperties();
+
+        new EnvironmentDaemon(runnerCache, published, Long.parseLong(args[2]), Boolean.parseBoolean(args[3]))
+                .serve(portFile);
+        System.exit(0);
+    }
+
+    private void serve(Path portFile) throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            publishPort(portFile, server.getLocalPort());
+            log.info("Environment {} is served on port {}.", runnerCache.getProviderName(), server.getLocalPort());
+            scheduleIdleCheck(server, portFile);
+
+            while (!server.isClosed()) {
+                try {
+                    Socket client = server.accept();
+                    attached.incrementAndGet();
+                    clients.submit(() -> handle(client));
+                } catch (IOException e) {
+                    log.debug("Stopped accepting clients.", e);
+                }
+            }
+        } finally {
+            Runner.instance().stopMocks(runnerCache);
+            Files.deleteIfExists(portFile);
+            clients.shutdownNow();
+            idleCheck.shutdownNow();
+        }
+    }
+
+    private void handle(Socket client) {
+        try (Socket ignored = client; InputStream in = client.getInputStream()) {
+            if (restoreOnAttach) {
+                restoreMocks();
+            }
+            DataOutputStream out = new DataOutputStream(client.getOutputStream());
+            out.writeInt(publishedProperties.length);
+            out.write(publishedProperties);
+            byte[] routes = publishedRoutes();
+            out.writeInt(routes.length);
+            out.write(routes);
+            out.flush();
+
+            // client stays attached until its JVM closes the connection
+            while (in.read() != -1) {
+            }
+        } catch (IOException e) {
+            log.debug("Client detached abruptly.", e);
+        } finally {
+            attached.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return routes as they are now, as mocks may register them after they are started, ex. for new buckets.
+     */
+    private byte[] publishedRoutes() throws IOException {
+        Properties routes = new Properties();
+        NameStore.getInstance().getRoutes().forEach((hostName, address) ->
+                routes.setProperty(hostName, address.getHostAddress()));
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        routes.store(content, "Routed by " + runnerCache.getProviderName());
+        return content.toByteArray();
+    }
+
+    /**
+     * Brings back default rules and storage left by the previous run.
+     */
+    private synchronized void restoreMocks() {
+        runnerCache.restoreAll();
+    }
+
+    private void scheduleIdleCheck(ServerSocket server, Path portFile) {
+        AtomicInteger idleFor = new AtomicInteger();
+        idleCheck.scheduleAtFixedRate(() -> {
+            if (attached.get() > 0) {
+                idleFor.set(0);
+            } else if (idleFor.incrementAndGet() >= idleSeconds) {
+                log.info("No test JVM attached for {} s, shutting down.", idleSeconds);
+                try {
+                    // stop new clients from finding this daemon before it stops accepting them
+                    Files.deleteIfExists(portFile);
+                    server.close();
+                } catch (IOException e) {
+                    log.warn("Could not close environment daemon.", e);
+                }
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private static void publishPort(Path portFile, int port) throws IOException {
+        Path tmp = Files.createTempFile(portFile.getParent(), "canaveral-env", ".tmp");
+        Files.write(tmp, Integer.toString(port).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, portFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
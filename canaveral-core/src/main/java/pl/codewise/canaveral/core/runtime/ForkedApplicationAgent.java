@@ -0,0 +1,90 @@
+package pl.codewise.canaveral.core.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Entry point of JVM launched by {@link ForkedApplicationProvider}. Connects back to the test JVM, sets properties it
+ * receives as system properties, runs main class of the application and then answers queries about its status and
+ * system properties until it is told to stop. Exits as soon as the test JVM goes away.
+ */
+public class ForkedApplicationAgent {
+
+    static final String STATUS = "status";
+    static final String PROPERTY = "property";
+    static final String STOP = "stop";
+
+    static final String RUNNING = "RUNNING";
+    static final String FAILED = "FAILED";
+
+    private static volatile Throwable failure;
+
+    public static void main(String[] args) throws Exception {
+        Socket channel = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+        DataInputStream in = new DataInputStream(channel.getInputStream());
+        DataOutputStream out = new DataOutputStream(channel.getOutputStream());
+
+        byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(content));
+        properties.stringPropertyNames().forEach(name -> System.setProperty(name, properties.getProperty(name)));
+
+        Method main = Class.forName(args[1]).getMethod("main", String[].class);
+        Thread application = new Thread(() -> runMain(main, Arrays.copyOfRange(args, 2, args.length)), "main");
+        application.start();
+
+        try {
+            serve(in, out);
+        } catch (IOException e) {
+            // test JVM is gone, nobody is going to stop the application
+        }
+        System.exit(0);
+    }
+
+    private static void runMain(Method main, String[] args) {
+        try {
+            main.invoke(null, (Object) args);
+        } catch (InvocationTargetException e) {
+            failure = e.getCause();
+            e.getCause().printStackTrace();
+        } catch (Throwable e) {
+            failure = e;
+            e.printStackTrace();
+        }
+    }
+
+    private static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            String command = in.readUTF();
+            switch (command) {
+                case STATUS:
+                    Throwable cause = failure;
+                    out.writeUTF(cause == null ? RUNNING : FAILED + " " + cause);
+                    break;
+                case PROPERTY:
+                    String value = System.getProperty(in.readUTF());
+                    out.writeBoolean(value != null);
+                    if (value != null) {
+                        out.writeUTF(value);
+                    }
+                    break;
+                case STOP:
+                    out.writeUTF(STOP);
+                    out.flush();
+                    return;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+            out.flush();
+        }
+    }
+}
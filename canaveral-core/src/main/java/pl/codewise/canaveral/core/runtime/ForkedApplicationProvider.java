@@ -0,0 +1,415 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.ApplicationProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the application in a separate JVM instead of the test JVM, so it gets its own heap, GC and JIT flags like in
+ * production. Properties of the runner configuration, together with the port of the application, are passed to it as
+ * system properties through a loopback connection, which is then used to check whether it is still running and to
+ * read its system properties. Application beans are not accessible from tests.
+ * <p>
+ * On JDK 13 and newer classes loaded by the application are archived on its first shutdown (AppCDS) and the archive is
+ * reused by the next runs with the same JDK, class path, main class and JVM flags, so they start faster. Archives are
+ * kept in the temporary directory.
+ */
+public class ForkedApplicationProvider implements ApplicationProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ForkedApplicationProvider.class);
+
+    private static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long ACCEPT_POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final String mainClass;
+    private final List<String> arguments;
+    private final List<String> jvmFlags;
+    private final String classPath;
+    private final String portProperty;
+    private final Duration startupTimeout;
+    private final boolean classDataSharing;
+    private final ProgressAssertion progressAssertion;
+    private final FeatureToggleManager featureToggleManager;
+
+    private Process process;
+    private Socket channel;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private File logFile;
+    private int port;
+
+    private ForkedApplicationProvider(Builder builder) {
+        this.mainClass = builder.mainClass;
+        this.arguments = ImmutableList.copyOf(builder.arguments);
+        this.jvmFlags = ImmutableList.copyOf(builder.jvmFlags);
+        this.classPath = builder.classPath;
+        this.portProperty = builder.portProperty;
+        this.startupTimeout = builder.startupTimeout;
+        this.classDataSharing = builder.classDataSharing;
+        this.progressAssertion = builder.progressAssertion;
+        this.featureToggleManager = builder.featureToggleManager;
+    }
+
+    public static Builder builder(String mainClass) {
+        return new Builder(mainClass);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return process != null && process.isAlive();
+    }
+
+    /**
+     * @return system property of the forked JVM.
+     */
+    @Override
+    public synchronized String getProperty(String propertyKey, String defaultValue) {
+        try {
+            out.writeUTF(ForkedApplicationAgent.PROPERTY);
+            out.writeUTF(propertyKey);
+            out.flush();
+            return in.readBoolean() ? in.readUTF() : defaultValue;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read property " + propertyKey + " of " + mainClass +
+                    ", see " + logFile, e);
+        }
+    }
+
+    @Override
+    public FeatureToggleManager getFeatureToggleManager() {
+        return featureToggleManager;
+    }
+
+    @Override
+    public void start(RunnerContext runnerContext) {
+        port = runnerContext.getFreePort();
+        Properties properties = runnerContext.getProperties().toProperties();
+        properties.setProperty(portProperty, Integer.toString(port));
+        String simpleName = mainClass.substring(mainClass.lastIndexOf('.') + 1);
+        logFile = Paths.get(System.getProperty("java.io.tmpdir"), "canaveral-app-" + simpleName + "-" + port + ".log")
+                .toFile();
+
+        try (ServerSocket callback = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmFlags);
+            if (classDataSharing) {
+                command.addAll(classDataSharingFlags(javaVersion(), archiveFile()));
+            }
+            command.addAll(Arrays.asList("-cp", classPath, ForkedApplicationAgent.class.getName(),
+                    Integer.toString(callback.getLocalPort()), mainClass));
+            command.addAll(arguments);
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile))
+                    .start();
+            log.info("Launched {} with flags {}, its output goes to {}.", mainClass, jvmFlags, logFile);
+
+            channel = awaitConnection(callback);
+            in = new DataInputStream(channel.getInputStream());
+            out = new DataOutputStream(channel.getOutputStream());
+            sendProperties(properties);
+        } catch (IOException e) {
+            destroy();
+            throw new IllegalStateException("Could not launch " + mainClass + ", see " + logFile, e);
+        } catch (RuntimeException e) {
+            destroy();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the forked JVM to connect back, giving up as soon as it exits.
+     */
+    private Socket awaitConnection(ServerSocket callback) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+        callback.setSoTimeout((int) ACCEPT_POLL_MILLIS);
+        while (true) {
+            try {
+                return callback.accept();
+            } catch (SocketTimeoutException e) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mainClass + " exited with code " + process.exitValue() +
+                            " before connecting back, see " + logFile, e);
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new IllegalStateException(mainClass + " did not connect back within " +
+                            CONNECT_TIMEOUT_MILLIS + " ms, see " + logFile, e);
+                }
+            }
+        }
+    }
+
+    private void destroy() {
+        closeQuietly(channel);
+        channel = null;
+        in = null;
+        out = null;
+        if (process != null) {
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+
+    private void sendProperties(Properties properties) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        properties.store(content, "Passed to " + mainClass);
+        out.writeInt(content.size());
+        out.write(content.toByteArray());
+        out.flush();
+    }
+
+    @Override
+    public synchronized void clean() {
+        if (process == null) {
+            return;
+        }
+        if (out == null) {
+            destroy();
+            return;
+        }
+        try {
+            out.writeUTF(ForkedApplicationAgent.STOP);
+            out.flush();
+            in.readUTF();
+            if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("{} did not stop within {} s, killing it.", mainClass, STOP_TIMEOUT_SECONDS);
+                process.destroyForcibly();
+            }
+        } catch (IOException e) {
+            log.debug("{} is already gone.", mainClass, e);
+            process.destroyForcibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        } finally {
+            closeQuietly(channel);
+            process = null;
+        }
+    }
+
+    @Override
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return "http://localhost:" + getPort();
+    }
+
+    @Override
+    public Object findBeanOrThrow(Class<?> beanClass, Set<Annotation> knownAnnotations) {
+        throw new IllegalStateException("Beans of " + mainClass + " live in another JVM, " + beanClass +
+                " cannot be injected.");
+    }
+
+    @Override
+    public void inject(Object instance) {
+        // nothing to inject from another JVM
+    }
+
+    /**
+     * @return whether the application is running, accepts connections on its port and meets configured progress
+     * assertion, waiting for it up to the startup timeout.
+     *
+     * @throws IllegalStateException if the forked JVM exited or main method of the application failed.
+     */
+    @Override
+    public boolean canProceed(RunnerContext runnerContext) {
+        return AwaitedProgress.within(startupTimeout)
+                .until(mainClass + ".port", context -> isRunning() && acceptsConnections())
+                .build()
+                .canProceed(runnerContext) && progressAssertion.canProceed(runnerContext);
+    }
+
+    private synchronized boolean isRunning() {
+        String status;
+        try {
+            out.writeUTF(ForkedApplicationAgent.STATUS);
+            out.flush();
+            status = in.readUTF();
+        } catch (IOException e) {
+            throw new IllegalStateException(mainClass + " exited, see " + logFile, e);
+        }
+        if (status.startsWith(ForkedApplicationAgent.FAILED)) {
+            throw new IllegalStateException(mainClass + " failed with " + status + ", see " + logFile);
+        }
+        return true;
+    }
+
+    private boolean acceptsConnections() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 100);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path archiveFile() {
+        return archiveFile(classPath, mainClass, jvmFlags);
+    }
+
+    /**
+     * JVM rejects an archive once any class path entry changes, so the archive is keyed by modification time and size
+     * of every entry and a rebuilt jar gets a new archive.
+     */
+    @VisibleForTesting
+    static Path archiveFile(String classPath, String mainClass, List<String> jvmFlags) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(System.getProperty("java.vm.version", ""), StandardCharsets.UTF_8)
+                .putString(classPath, StandardCharsets.UTF_8)
+                .putString(mainClass, StandardCharsets.UTF_8)
+                .putString(jvmFlags.toString(), StandardCharsets.UTF_8);
+        for (String entry : classPath.split(File.pathSeparator)) {
+            File file = new File(entry);
+            hasher.putLong(file.lastModified()).putLong(file.length());
+        }
+        String key = hasher.hash().toString().substring(0, 16);
+        return Paths.get(System.getProperty("java.io.tmpdir"), "canaveral-cds-" + key + ".jsa");
+    }
+
+    /**
+     * @return flags which archive loaded classes on exit or use the archive if it already exists, none on JDK older
+     * than 13 which cannot archive classes of the application dynamically.
+     */
+    @VisibleForTesting
+    static List<String> classDataSharingFlags(int javaVersion, Path archive) {
+        if (javaVersion >= 19) {
+            return ImmutableList.of("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive);
+        }
+        if (javaVersion >= 13) {
+            return Files.exists(archive) ? ImmutableList.of("-XX:SharedArchiveFile=" + archive) :
+                    ImmutableList.of("-XX:ArchiveClassesAtExit=" + archive);
+        }
+        log.debug("Class data sharing of the application requires JDK 13 or newer, running on {}.", javaVersion);
+        return Collections.emptyList();
+    }
+
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.trace("Could not close channel.", e);
+        }
+    }
+
+    public static class Builder {
+
+        private final String mainClass;
+        private final List<String> arguments = new ArrayList<>();
+        private final List<String> jvmFlags = new ArrayList<>();
+        private String classPath = System.getProperty("java.class.path");
+        private String portProperty = "server.port";
+        private Duration startupTimeout = Duration.ofMinutes(2);
+        private boolean classDataSharing = true;
+        private ProgressAssertion progressAssertion = ProgressAssertion.CAN_PROGRESS_ASSERTION;
+        private FeatureToggleManager featureToggleManager;
+
+        private Builder(String mainClass) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(mainClass), "Main class cannot be empty.");
+            this.mainClass = mainClass;
+        }
+
+        public Builder withArguments(String... arguments) {
+            this.arguments.addAll(Arrays.asList(arguments));
+            return this;
+        }
+
+        /**
+         * @param jvmFlags ex. {@code -Xmx512m}, {@code -XX:+UseG1GC} or {@code -XX:TieredStopAtLevel=1}.
+         */
+        public Builder withJvmFlags(String... jvmFlags) {
+            this.jvmFlags.addAll(Arrays.asList(jvmFlags));
+            return this;
+        }
+
+        /**
+         * Class path of the forked JVM, class path of the test JVM by default.
+         */
+        public Builder withClassPath(String classPath) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(classPath), "Class path cannot be empty.");
+            this.classPath = classPath;
+            return this;
+        }
+
+        /**
+         * System property of the forked JVM the port of the application is passed in, {@code server.port} by
+         * default.
+         */
+        public Builder registerPortUnder(String portProperty) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(portProperty), "Port property cannot be empty.");
+            this.portProperty = portProperty;
+            return this;
+        }
+
+        public Builder withStartupTimeout(Duration startupTimeout) {
+            Preconditions.checkArgument(startupTimeout != null && !startupTimeout.isNegative(),
+                    "Startup timeout cannot be negative.");
+            this.startupTimeout = startupTimeout;
+            return this;
+        }
+
+        /**
+         * Checked once the application accepts connections on its port.
+         */
+        public Builder withProgressAssertion(ProgressAssertion progressAssertion) {
+            this.progressAssertion = Preconditions.checkNotNull(progressAssertion);
+            return this;
+        }
+
+        public Builder withFeatureToggleManager(FeatureToggleManager featureToggleManager) {
+            this.featureToggleManager = featureToggleManager;
+            return this;
+        }
+
+        public Builder withoutClassDataSharing() {
+            this.classDataSharing = false;
+            return this;
+        }
+
+        public ForkedApplicationProvider build() {
+            return new ForkedApplicationProvider(this);
+        }
+    }
+}
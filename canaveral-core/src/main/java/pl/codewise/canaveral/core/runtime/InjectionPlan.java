@@ -0,0 +1,125 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import pl.codewise.canaveral.core.bean.inject.InjectMock;
+import pl.codewise.canaveral.core.bean.inject.InjectTestBean;
+
+import javax.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.reflect.FieldUtils.getFieldsListWithAnnotation;
+
+/**
+ * Mocks and beans resolved once for a test class together with setters of fields they are injected into, so every
+ * next instance of the class only has its fields set.
+ */
+class InjectionPlan {
+
+    private final Class<?> testClass;
+    private final List<Injection> injections;
+
+    private InjectionPlan(Class<?> testClass, List<Injection> injections) {
+        this.testClass = testClass;
+        this.injections = injections;
+    }
+
+    static InjectionPlan create(Class<?> testClass, RunnerCache cache) {
+        ImmutableList.Builder<Injection> injections = ImmutableList.builder();
+        planMocks(testClass, cache, injections);
+        planTestBeans(testClass, cache, injections);
+        if (cache.hasApplicationProvider()) {
+            planBeans(testClass, getFieldsListWithAnnotation(testClass, Inject.class), cache::getApplicationBean,
+                    injections);
+        }
+        return new InjectionPlan(testClass, injections.build());
+    }
+
+    void injectInto(Object testInstance) {
+        for (Injection injection : injections) {
+            try {
+                injection.setter.invoke(testInstance, injection.value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not inject " + injection.description +
+                        " into " + testClass.getCanonicalName(), e);
+            }
+        }
+    }
+
+    private static void planMocks(Class<?> testClass, RunnerCache cache, ImmutableList.Builder<Injection> injections) {
+        getFieldsListWithAnnotation(testClass, InjectMock.class).forEach(field -> {
+            String mockRef = field.getAnnotation(InjectMock.class).value();
+            Class<?> mockType = field.getType();
+            Object mock;
+            if (Strings.isNullOrEmpty(mockRef)) {
+                mock = cache.getUniqueMock(mockType);
+            } else {
+                mock = cache.getMock(mockRef);
+            }
+            Preconditions.checkNotNull(mock, "There is no mock for \"" + mockRef + "\":" + mockType +
+                    " requested in " + testClass.getCanonicalName());
+            injections.add(new Injection(field, mock, "mock \"" + mockRef + "\":" + mockType));
+        });
+    }
+
+    private static void planTestBeans(Class<?> testClass, RunnerCache cache,
+            ImmutableList.Builder<Injection> injections) {
+        List<Field> injectionPoints = getFieldsListWithAnnotation(testClass, InjectTestBean.class);
+        if (!injectionPoints.isEmpty() && !cache.hasTestConfigurationProvider()) {
+            List<String> requestedBeans = injectionPoints.stream()
+                    .map(Field::getType)
+                    .map(Class::getCanonicalName)
+                    .collect(Collectors.toList());
+            throw new IllegalStateException("Test " + testClass.getCanonicalName() +
+                    "requires test beans " + requestedBeans + " by @InjectTestBean " +
+                    "but no test bean provider available. " +
+                    "Remove those annotation or configure test context.");
+        }
+        planBeans(testClass, injectionPoints, cache::getTestBean, injections);
+    }
+
+    private static void planBeans(Class<?> testClass,
+            List<Field> injectionPoints,
+            BiFunction<Class<?>, Set<Annotation>, Object> beanProvider,
+            ImmutableList.Builder<Injection> injections) {
+
+        injectionPoints.forEach(field -> {
+            Class<?> beanType = field.getType();
+            Object bean = beanProvider.apply(beanType, ImmutableSet.copyOf(field.getAnnotations()));
+            Preconditions.checkNotNull(bean, "There is no bean for " + beanType +
+                    " requested in " + testClass.getCanonicalName());
+            injections.add(new Injection(field, bean, "bean " + beanType));
+        });
+    }
+
+    private static class Injection {
+
+        private final MethodHandle setter;
+        private final Object value;
+        private final String description;
+
+        private Injection(Field field, Object value, String description) {
+            this.setter = setterOf(field, description);
+            this.value = value;
+            this.description = description;
+        }
+
+        private static MethodHandle setterOf(Field field, String description) {
+            try {
+                field.setAccessible(true);
+                return MethodHandles.lookup().unreflectSetter(field);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalStateException("Could not access field " + field + " to inject " + description, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the port of prepared {@link LazyMockProvider} and starts the mock on first inbound connection or on first
+ * explicit request, whichever comes first. The first connection is forwarded to the started mock. Connections made
+ * while the mock is starting are refused, as the port has to be released for the mock to bind it.
+ */
+class LazyMockStarter {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyMockStarter.class);
+
+    private final String ref;
+    private final LazyMockProvider provider;
+    private final RunnerCache cache;
+
+    private ServerSocket trigger;
+    private Thread listener;
+    private volatile boolean started = false;
+
+    LazyMockStarter(String ref, LazyMockProvider provider, RunnerCache cache) {
+        this.ref = ref;
+        this.provider = provider;
+        this.cache = cache;
+    }
+
+    void prepare() throws Exception {
+        provider.prepare(cache);
+
+        trigger = new ServerSocket();
+        trigger.setReuseAddress(true);
+        trigger.bind(new InetSocketAddress(provider.getPort()));
+
+        listener = new Thread(this::awaitFirstConnection, "canaveral-lazy-" + ref);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    LazyMockProvider getProvider() {
+        return provider;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    void ensureStarted() {
+        if (!started) {
+            start(null);
+        }
+    }
+
+    /**
+     * Releases the port of a mock which was never started.
+     */
+    synchronized void disarm() {
+        if (!started) {
+            closeQuietly(trigger);
+        }
+    }
+
+    private void awaitFirstConnection() {
+        try {
+            Socket connection = trigger.accept();
+            log.debug("First connection to {}, starting it now.", ref);
+            start(connection);
+        } catch (IOException e) {
+            log.trace("Lazy trigger of {} closed.", ref);
+        } catch (Exception e) {
+            log.error("Could not lazily start mock {}.", ref, e);
+        }
+    }
+
+    private synchronized void start(Socket pendingConnection) {
+        if (started) {
+            // started by explicit request while the first connection was being accepted
+            if (pendingConnection != null) {
+                forward(pendingConnection);
+            }
+            return;
+        }
+        releaseTrigger();
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("mock." + ref + ".lazyStart")) {
+            provider.startPrepared(cache);
+        } catch (Exception e) {
+            closeQuietly(pendingConnection);
+            throw new IllegalStateException("Could not lazily start mock " + ref, e);
+        }
+        cache.putMockObject(ref, provider.providedMock());
+        started = true;
+        cache.onLazyMockStarted(provider);
+        log.info("Lazily started {} on port {}.", ref, provider.getPort());
+
+        if (pendingConnection != null) {
+            forward(pendingConnection);
+        }
+    }
+
+    /**
+     * Closing a socket blocked in accept() completes only once accept() returns, so the port is free to bind after
+     * the listener is gone. Listener blocked on this starter has already accepted a connection and waits to forward
+     * it, so it is not waited for.
+     */
+    private void releaseTrigger() {
+        closeQuietly(trigger);
+        if (Thread.currentThread() == listener) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        try {
+            while (listener.isAlive() && listener.getState() != Thread.State.BLOCKED &&
+                    System.nanoTime() - deadline < 0) {
+                listener.join(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void forward(Socket client) {
+        try {
+            Socket upstream = new Socket(InetAddress.getLoopbackAddress(), provider.getPort());
+            pipe(client.getInputStream(), upstream.getOutputStream(), upstream);
+            pipe(upstream.getInputStream(), client.getOutputStream(), client);
+        } catch (IOException e) {
+            log.warn("Could not forward first connection to {}.", ref, e);
+            closeQuietly(client);
+        }
+    }
+
+    private void pipe(InputStream from, OutputStream to, Socket target) {
+        Thread pipe = new Thread(() -> {
+            byte[] buffer = new byte[8192];
+            try {
+                int read;
+                while ((read = from.read(buffer)) != -1) {
+                    to.write(buffer, 0, read);
+                    to.flush();
+                }
+                target.shutdownOutput();
+            } catch (IOException e) {
+                closeQuietly(target);
+            }
+        }, "canaveral-lazy-" + ref + "-forward");
+        pipe.setDaemon(true);
+        pipe.start();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.trace("Could not close {}.", closeable, e);
+        }
+    }
+}
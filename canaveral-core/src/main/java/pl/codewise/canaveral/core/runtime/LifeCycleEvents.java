@@ -0,0 +1,130 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import pl.codewise.canaveral.core.mock.MockProvider;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Delivers test class and test method events to {@link LifeCycleListener}s. Listeners of the same priority are called
+ * concurrently, ex. to reset independent mocks at once, groups of different priority one after another. Listeners
+ * which do not override given event are skipped.
+ */
+class LifeCycleEvents {
+
+    static final String BEFORE_TEST_CLASS = "beforeTestClass";
+    static final String AFTER_TEST_CLASS = "afterTestClass";
+    static final String BEFORE_TEST_METHOD = "beforeTestMethod";
+    static final String AFTER_TEST_METHOD = "afterTestMethod";
+
+    private static final Map<String, Class<?>[]> PARAMETERS = ImmutableMap.of(
+            BEFORE_TEST_CLASS, new Class<?>[] {RunnerContext.class, Class.class},
+            AFTER_TEST_CLASS, new Class<?>[] {RunnerContext.class, Class.class},
+            BEFORE_TEST_METHOD, new Class<?>[] {RunnerContext.class, Object.class, Method.class},
+            AFTER_TEST_METHOD, new Class<?>[] {RunnerContext.class, Object.class, Method.class});
+
+    /**
+     * Shared by all runner configurations, idle threads are released after a minute.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("canaveral-lifecycle-%d")
+            .setDaemon(true)
+            .build());
+
+    private final StartupReport report;
+    private final Map<Class<?>, Map<String, Boolean>> overriddenEvents = new ConcurrentHashMap<>();
+
+    LifeCycleEvents(StartupReport report) {
+        this.report = report;
+    }
+
+    /**
+     * @param listeners sorted by priority.
+     *
+     * @throws IllegalStateException if any listener failed, after all listeners of its priority finished.
+     */
+    void publish(String event, List<LifeCycleListener> listeners, Consumer<LifeCycleListener> call) {
+        Map<Integer, List<LifeCycleListener>> byPriority = new TreeMap<>();
+        listeners.stream()
+                .filter(listener -> overrides(listener, event))
+                .forEach(listener -> byPriority
+                        .computeIfAbsent(listener.getPriority(), priority -> new ArrayList<>())
+                        .add(listener));
+        byPriority.values().forEach(group -> callConcurrently(event, group, LifeCycleEvents::nameOf, call));
+    }
+
+    /**
+     * Calls all targets at once and records time spent by each one as {@code <event>.<name>}.
+     *
+     * @throws IllegalStateException if any call failed, after all calls finished.
+     */
+    <T> void callConcurrently(String event, List<T> targets, Function<T, String> nameOf, Consumer<T> call) {
+        if (targets.size() == 1) {
+            callMeasured(event, targets.get(0), nameOf, call);
+            return;
+        }
+
+        List<Future<?>> results = new ArrayList<>(targets.size());
+        targets.forEach(target -> results.add(EXECUTOR.submit(() -> callMeasured(event, target, nameOf, call))));
+        IllegalStateException failure = null;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Could not call " + event + ".", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + event, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private <T> void callMeasured(String event, T target, Function<T, String> nameOf, Consumer<T> call) {
+        long startedAt = System.nanoTime();
+        try {
+            call.accept(target);
+        } finally {
+            report.recordListener(event + "." + nameOf.apply(target), System.nanoTime() - startedAt);
+        }
+    }
+
+    private boolean overrides(LifeCycleListener listener, String event) {
+        return overriddenEvents
+                .computeIfAbsent(listener.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(event, name -> {
+                    try {
+                        Method method = listener.getClass().getMethod(name, PARAMETERS.get(name));
+                        return method.getDeclaringClass() != LifeCycleListener.class;
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalStateException("Unknown life cycle event " + name, e);
+                    }
+                });
+    }
+
+    private static String nameOf(LifeCycleListener listener) {
+        if (listener instanceof MockProvider) {
+            return ((MockProvider) listener).getMockName();
+        }
+        String simpleName = listener.getClass().getSimpleName();
+        return simpleName.isEmpty() ? listener.getClass().getName() : simpleName;
+    }
+}
@@ -1,5 +1,12 @@
 package pl.codewise.canaveral.core.runtime;
 
+import java.lang.reflect.Method;
+
+/**
+ * Listeners are called in order of {@link #getPriority()}. Test class and test method events are delivered to
+ * listeners of the same priority concurrently, so a listener which has to run before or after another one should
+ * declare different priority.
+ */
 @SuppressWarnings("unused")
 public interface LifeCycleListener {
 
@@ -10,4 +17,23 @@ public interface LifeCycleListener {
     default void afterAllMocksCreated(RunnerContext runnerContext) {
 
     }
+
+    default void beforeTestClass(RunnerContext runnerContext, Class<?> testClass) {
+
+    }
+
+    default void afterTestClass(RunnerContext runnerContext, Class<?> testClass) {
+
+    }
+
+    /**
+     * Called before each test method, ex. to reset mock to its defaults.
+     */
+    default void beforeTestMethod(RunnerContext runnerContext, Object testInstance, Method testMethod) {
+
+    }
+
+    default void afterTestMethod(RunnerContext runnerContext, Object testInstance, Method testMethod) {
+
+    }
 }
@@ -0,0 +1,154 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import pl.codewise.canaveral.core.mock.MockConfig;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Fingerprint of {@link MockConfig} built from its class and values of all its fields, so mocks configured the same
+ * way by two configurations have equal fingerprints. Values without a value based {@code toString()} are described
+ * by their own fields, a few levels deep. Fields which cannot be read differ between configurations, which only makes
+ * the mock to be restarted.
+ */
+class MockFingerprint {
+
+    private static final String LAMBDA_MARKER = "$$Lambda$";
+    private static final int MAX_DEPTH = 4;
+
+    private final boolean acrossJvms;
+
+    private MockFingerprint(boolean acrossJvms) {
+        this.acrossJvms = acrossJvms;
+    }
+
+    /**
+     * @return fingerprint valid in this JVM only, as it tells apart lambdas declared by the same class.
+     */
+    static String of(MockConfig<?> config) {
+        return new MockFingerprint(false).hash(config);
+    }
+
+    /**
+     * @return fingerprint equal in every JVM running the same classes. Lambdas are identified by the class declaring
+     * them and the time it was compiled, as names of lambda classes differ from run to run.
+     */
+    static String acrossJvms(MockConfig<?> config) {
+        return new MockFingerprint(true).hash(config);
+    }
+
+    /**
+     * @return time class file of given type was modified or 0 if it is unknown.
+     */
+    static long lastModified(Class<?> type) {
+        URL classFile = type.getResource(type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class");
+        try {
+            return classFile == null ? 0 : classFile.openConnection().getLastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private String hash(MockConfig<?> config) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(typeName(config.getClass()), StandardCharsets.UTF_8)
+                .putString(fieldsOf(config, 0), StandardCharsets.UTF_8);
+        return hasher.hash().toString().substring(0, 16);
+    }
+
+    private String fieldsOf(Object value, int depth) {
+        StringJoiner fieldValues = new StringJoiner(", ", "{", "}");
+        for (Class<?> type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            Field[] fields = type.getDeclaredFields();
+            Arrays.sort(fields, (first, second) -> first.getName().compareTo(second.getName()));
+            for (Field field : fields) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                fieldValues.add(field.getName() + "=" + valueOf(field, value, depth));
+            }
+        }
+        return fieldValues.toString();
+    }
+
+    private String valueOf(Field field, Object owner, int depth) {
+        try {
+            field.setAccessible(true);
+            return describe(field.get(owner), depth + 1);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // unreadable field never matches, mock is restarted
+            return field.getName() + "@" + System.nanoTime();
+        }
+    }
+
+    /**
+     * Collections and maps are described element by element, as their elements may lack value based {@code toString()}.
+     * Other iterables with value based {@code toString()}, ex. {@link java.nio.file.Path}, are described by it, as they
+     * may iterate over values of their own type. Structures deeper than {@link #MAX_DEPTH}, including cyclic ones, are
+     * cut off.
+     */
+    private String describe(Object value, int depth) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Class) {
+            return typeName((Class<?>) value);
+        }
+        if (!(value instanceof Collection || value instanceof Map) && hasValueBasedToString(value.getClass())) {
+            return value.toString();
+        }
+        if (depth >= MAX_DEPTH) {
+            return typeName(value.getClass());
+        }
+        StringJoiner elements = new StringJoiner(", ", "[", "]");
+        if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(describe(Array.get(value, i), depth + 1));
+            }
+            return elements.toString();
+        }
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((key, element) ->
+                    elements.add(describe(key, depth + 1) + "=" + describe(element, depth + 1)));
+            return elements.toString();
+        }
+        if (value instanceof Iterable) {
+            ((Iterable<?>) value).forEach(element -> elements.add(describe(element, depth + 1)));
+            return elements.toString();
+        }
+        return typeName(value.getClass()) + fieldsOf(value, depth);
+    }
+
+    private static boolean hasValueBasedToString(Class<?> type) {
+        try {
+            return type.getMethod("toString").getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private String typeName(Class<?> type) {
+        String name = type.getName();
+        int lambda = name.indexOf(LAMBDA_MARKER);
+        if (!acrossJvms || lambda < 0) {
+            return name;
+        }
+        String declaringName = name.substring(0, lambda);
+        try {
+            Class<?> declaringClass = Class.forName(declaringName, false, type.getClassLoader());
+            return declaringName + "$$Lambda@" + lastModified(declaringClass);
+        } catch (ClassNotFoundException e) {
+            return declaringName + "$$Lambda";
+        }
+    }
+}
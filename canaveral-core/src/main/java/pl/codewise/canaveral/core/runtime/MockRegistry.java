@@ -0,0 +1,74 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Mock objects indexed by ref and by every class and interface they implement, so typed lookups do not scan all
+ * mocks. Registration is serialized, lookups are lock free and safe to be done from many test threads.
+ */
+class MockRegistry {
+
+    private final Map<String, Object> byRef = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<String>> refsByType = new ConcurrentHashMap<>();
+
+    synchronized void register(String ref, Object mock) {
+        Object previous = byRef.put(ref, mock);
+        if (previous != null) {
+            typesOf(previous).forEach(type -> refsByType.get(type).remove(ref));
+        }
+        typesOf(mock).forEach(type -> refsByType.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(ref));
+    }
+
+    synchronized void unregister(String ref) {
+        Object previous = byRef.remove(ref);
+        if (previous != null) {
+            typesOf(previous).forEach(type -> refsByType.get(type).remove(ref));
+        }
+    }
+
+    Object get(String ref) {
+        return byRef.get(ref);
+    }
+
+    /**
+     * @return mock registered first among all mocks of given type.
+     */
+    Optional<Object> findFirst(Class<?> mockType) {
+        return refsOf(mockType).stream()
+                .findFirst()
+                .map(byRef::get);
+    }
+
+    /**
+     * @return the only mock of given type.
+     *
+     * @throws IllegalArgumentException if more than one mock is of given type.
+     */
+    Optional<Object> findUnique(Class<?> mockType) {
+        List<String> refs = refsOf(mockType);
+        if (refs.size() > 1) {
+            throw new IllegalArgumentException("Mocks " + refs + " are all of type " + mockType +
+                    ". Inject one of them by ref.");
+        }
+        return findFirst(mockType);
+    }
+
+    private List<String> refsOf(Class<?> mockType) {
+        return ImmutableList.copyOf(refsByType.getOrDefault(mockType, ImmutableList.of()));
+    }
+
+    private static List<Class<?>> typesOf(Object mock) {
+        return TypeToken.of(mock.getClass()).getTypes().rawTypes().stream()
+                .map(type -> (Class<?>) type)
+                .collect(toList());
+    }
+}
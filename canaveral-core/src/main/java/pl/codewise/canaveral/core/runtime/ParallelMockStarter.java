@@ -0,0 +1,106 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.RunnerConfiguration.MockProviderCreator;
+import pl.codewise.canaveral.core.runtime.RunnerConfiguration.MockProvidersConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts mocks concurrently on a bounded pool. A mock is submitted as soon as all mocks it depends on are started.
+ * First failure cancels all remaining starts and is rethrown to the caller.
+ */
+class ParallelMockStarter {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelMockStarter.class);
+
+    private final MockProvidersConfiguration configuration;
+    private final int threads;
+
+    ParallelMockStarter(MockProvidersConfiguration configuration, int threads) {
+        this.configuration = configuration;
+        this.threads = threads;
+    }
+
+    void startAll(MockProviderCreator creator) throws Exception {
+        startAll(configuration.getRefs(), creator);
+    }
+
+    /**
+     * Starts only mocks identified by given refs. Their dependencies which are not among them are considered started.
+     */
+    void startAll(Collection<String> refs, MockProviderCreator creator) throws Exception {
+        Map<String, Integer> pendingDependencies = new LinkedHashMap<>();
+        Map<String, Set<String>> dependants = new HashMap<>();
+        Set<String> starting = ImmutableSet.copyOf(refs);
+        for (String ref : starting) {
+            Set<String> dependencies = Sets.intersection(configuration.getDependencies(ref), starting);
+            pendingDependencies.put(ref, dependencies.size());
+            dependencies.forEach(dependency -> dependants.computeIfAbsent(dependency, k -> new HashSet<>()).add(ref));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("canaveral-mock-starter-%d")
+                .setDaemon(true)
+                .build());
+        CompletionService<String> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            List<String> ready = new ArrayList<>();
+            pendingDependencies.forEach((ref, pending) -> {
+                if (pending == 0) {
+                    ready.add(ref);
+                }
+            });
+            ready.forEach(ref -> submit(completionService, creator, ref));
+
+            for (int started = 0; started < pendingDependencies.size(); started++) {
+                String startedRef = takeStarted(completionService);
+                log.debug("Mock {} started, releasing its dependants.", startedRef);
+
+                for (String dependant : dependants.getOrDefault(startedRef, Collections.emptySet())) {
+                    if (pendingDependencies.merge(dependant, -1, Integer::sum) == 0) {
+                        submit(completionService, creator, dependant);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(CompletionService<String> completionService, MockProviderCreator creator, String ref) {
+        completionService.submit(() -> {
+            creator.consume(ref, configuration.get(ref));
+            return ref;
+        });
+    }
+
+    private String takeStarted(CompletionService<String> completionService) throws Exception {
+        try {
+            return completionService.take().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            Throwables.throwIfInstanceOf(cause, Exception.class);
+            Throwables.throwIfUnchecked(cause);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserves free ports in blocks and keeps them bound to loopback address until they are handed over, so no other
+ * process can take them in the meantime and mocks are not exposed on other interfaces. Ports handed over as numbers
+ * are additionally leased in a file shared by all JVMs on the host for {@link #LEASE_MILLIS}, which covers the window
+ * between releasing the port and binding it by its consumer.
+ */
+class PortAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(PortAllocator.class);
+
+    static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int BLOCK_SIZE = 16;
+    private static final int MAX_BIND_ATTEMPTS = BLOCK_SIZE * 10;
+
+    private static final PortAllocator INSTANCE = new PortAllocator(
+            Paths.get(System.getProperty("java.io.tmpdir"), "canaveral-ports.lease"), BLOCK_SIZE);
+
+    private final Path leaseFile;
+    private final int blockSize;
+    private final Deque<ServerSocketChannel> reserved = new ArrayDeque<>();
+
+    @VisibleForTesting
+    PortAllocator(Path leaseFile, int blockSize) {
+        this.leaseFile = leaseFile;
+        this.blockSize = blockSize;
+    }
+
+    static PortAllocator instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return port which is released just before returning, so it can be bound by the caller.
+     */
+    synchronized int nextPort() {
+        ServerSocketChannel channel = nextReserved();
+        int port = channel.socket().getLocalPort();
+        closeQuietly(channel);
+        return port;
+    }
+
+    /**
+     * @return server socket channel already bound to a free port of loopback address. Caller becomes responsible for
+     * closing it.
+     */
+    synchronized ServerSocketChannel nextServerSocketChannel() {
+        return nextReserved();
+    }
+
+    private ServerSocketChannel nextReserved() {
+        if (reserved.isEmpty()) {
+            reserveBlock();
+        }
+        return reserved.poll();
+    }
+
+    private void reserveBlock() {
+        try (FileChannel leaseChannel = FileChannel.open(leaseFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = leaseChannel.lock()) {
+            Map<Integer, Long> leases = readLeases(leaseChannel);
+            reserveBlock(leases);
+            writeLeases(leaseChannel, leases);
+        } catch (IOException e) {
+            log.warn("Could not coordinate ports through {}, reserving without it.", leaseFile, e);
+            reserveBlock(new HashMap<>());
+        }
+
+        if (reserved.isEmpty()) {
+            throw new IllegalStateException("Could not reserve another free port!");
+        }
+    }
+
+    private void reserveBlock(Map<Integer, Long> leases) {
+        long now = System.currentTimeMillis();
+        List<ServerSocketChannel> leasedElsewhere = new ArrayList<>();
+        for (int attempt = 0; attempt < MAX_BIND_ATTEMPTS && reserved.size() < blockSize; attempt++) {
+            ServerSocketChannel channel = bindAnyPort();
+            if (channel == null) {
+                continue;
+            }
+            int port = channel.socket().getLocalPort();
+            if (leases.containsKey(port)) {
+                // keep it bound until the block is complete so it is not offered again
+                leasedElsewhere.add(channel);
+            } else {
+                leases.put(port, now);
+                reserved.add(channel);
+            }
+        }
+        leasedElsewhere.forEach(this::closeQuietly);
+        log.debug("Reserved {} ports, skipped {} leased by other processes.", reserved.size(), leasedElsewhere.size());
+    }
+
+    private ServerSocketChannel bindAnyPort() {
+        try {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            return channel;
+        } catch (IOException e) {
+            log.debug("Could not bind free port.", e);
+            return null;
+        }
+    }
+
+    private Map<Integer, Long> readLeases(FileChannel leaseChannel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) leaseChannel.size());
+        leaseChannel.read(buffer, 0);
+
+        long expiredBefore = System.currentTimeMillis() - LEASE_MILLIS;
+        Map<Integer, Long> leases = new HashMap<>();
+        for (String line : new String(buffer.array(), StandardCharsets.UTF_8).split("\n")) {
+            String[] lease = line.trim().split(" ");
+            if (lease.length != 2) {
+                continue;
+            }
+            try {
+                long leasedAt = Long.parseLong(lease[1]);
+                if (leasedAt > expiredBefore) {
+                    leases.put(Integer.parseInt(lease[0]), leasedAt);
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Skipping malformed lease '{}'.", line);
+            }
+        }
+        return leases;
+    }
+
+    private void writeLeases(FileChannel leaseChannel, Map<Integer, Long> leases) throws IOException {
+        StringBuilder content = new StringBuilder();
+        leases.forEach((port, leasedAt) -> content.append(port).append(' ').append(leasedAt).append('\n'));
+
+        leaseChannel.truncate(0);
+        leaseChannel.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)), 0);
+    }
+
+    private void closeQuietly(ServerSocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Could not release port.", e);
+        }
+    }
+}
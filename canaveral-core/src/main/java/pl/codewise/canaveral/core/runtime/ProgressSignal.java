@@ -0,0 +1,34 @@
+package pl.codewise.canaveral.core.runtime;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up {@link AwaitedProgress} conditions whenever something they may wait for happens, ex. mock received
+ * a request or an application registered itself. Conditions are re-checked on every signal, so they do not have to
+ * wait for the next poll.
+ */
+class ProgressSignal {
+
+    private long generation = 0;
+
+    synchronized void signal() {
+        generation++;
+        notifyAll();
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Waits until a signal newer than {@code seenGeneration} arrives or given time passes.
+     */
+    synchronized void awaitNext(long seenGeneration, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        long remaining = timeoutNanos;
+        while (generation == seenGeneration && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.mock.MockCost;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budget of resources mocks may take while starting, see {@link MockCost}. Light mocks do not wait at all. Threads and
+ * memory are limited within the JVM, heavy mocks take one of slots shared by all JVMs on the host through lock files,
+ * so test forks starting at once do not launch all their containers together.
+ * <p>
+ * Budget may be tuned with {@code canaveral.mocks.heavySlots}, {@code canaveral.mocks.threadBudget} and
+ * {@code canaveral.mocks.memoryBudgetMb} system properties.
+ */
+class ResourceBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceBudget.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final ResourceBudget INSTANCE = new ResourceBudget(
+            Paths.get(System.getProperty("java.io.tmpdir")),
+            Integer.getInteger("canaveral.mocks.heavySlots",
+                    Math.max(1, Runtime.getRuntime().availableProcessors() / 4)),
+            Integer.getInteger("canaveral.mocks.threadBudget", Runtime.getRuntime().availableProcessors()),
+            Integer.getInteger("canaveral.mocks.memoryBudgetMb", defaultMemoryBudgetMb()));
+
+    private final Path slotDirectory;
+    private final int heavySlots;
+    private final int threadBudget;
+    private final int memoryBudgetMb;
+    private final Semaphore threads;
+    private final Semaphore memoryMb;
+    private final Set<Integer> slotsTakenHere = new HashSet<>();
+
+    @VisibleForTesting
+    ResourceBudget(Path slotDirectory, int heavySlots, int threadBudget, int memoryBudgetMb) {
+        this.slotDirectory = slotDirectory;
+        this.heavySlots = Math.max(1, heavySlots);
+        this.threadBudget = Math.max(1, threadBudget);
+        this.memoryBudgetMb = Math.max(1, memoryBudgetMb);
+        this.threads = new Semaphore(this.threadBudget, true);
+        this.memoryMb = new Semaphore(this.memoryBudgetMb, true);
+    }
+
+    static ResourceBudget instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Blocks until resources of given cost are available. Cost exceeding the whole budget is capped to it, so such
+     * mock still starts, just alone.
+     *
+     * @return lease which has to be closed once mock is started.
+     */
+    Lease acquire(MockCost cost) throws InterruptedException {
+        if (cost.isLight()) {
+            return Lease.NONE;
+        }
+
+        // always in the same order, so two mocks never wait for each other
+        HeavySlot slot = cost.isHeavy() ? acquireHeavySlot() : null;
+        int threadPermits = Math.min(cost.getThreads(), threadBudget);
+        int memoryPermits = Math.min(cost.getMemoryMb(), memoryBudgetMb);
+        try {
+            threads.acquire(threadPermits);
+            try {
+                memoryMb.acquire(memoryPermits);
+            } catch (InterruptedException e) {
+                threads.release(threadPermits);
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            if (slot != null) {
+                slot.release();
+            }
+            throw e;
+        }
+
+        return new Lease(() -> {
+            memoryMb.release(memoryPermits);
+            threads.release(threadPermits);
+            if (slot != null) {
+                slot.release();
+            }
+        });
+    }
+
+    private HeavySlot acquireHeavySlot() throws InterruptedException {
+        while (true) {
+            for (int index = 0; index < heavySlots; index++) {
+                HeavySlot slot = tryAcquireHeavySlot(index);
+                if (slot != null) {
+                    return slot;
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+        }
+    }
+
+    private HeavySlot tryAcquireHeavySlot(int index) {
+        synchronized (slotsTakenHere) {
+            if (!slotsTakenHere.add(index)) {
+                return null;
+            }
+        }
+
+        Path slotFile = slotDirectory.resolve("canaveral-heavy-slot-" + index + ".lock");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(slotFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return new HeavySlot(index, channel);
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            log.debug("Could not lock {}.", slotFile, e);
+        }
+
+        closeQuietly(channel);
+        synchronized (slotsTakenHere) {
+            slotsTakenHere.remove(index);
+        }
+        return null;
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Could not release heavy slot.", e);
+        }
+    }
+
+    private static int defaultMemoryBudgetMb() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            long totalMb = ((com.sun.management.OperatingSystemMXBean) os).getTotalPhysicalMemorySize() >> 20;
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(1, totalMb / 2));
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private class HeavySlot {
+
+        private final int index;
+        private final FileChannel channel;
+
+        private HeavySlot(int index, FileChannel channel) {
+            this.index = index;
+            this.channel = channel;
+        }
+
+        private void release() {
+            // closing the channel releases its lock
+            closeQuietly(channel);
+            synchronized (slotsTakenHere) {
+                slotsTakenHere.remove(index);
+            }
+        }
+    }
+
+    static final class Lease implements AutoCloseable {
+
+        static final Lease NONE = new Lease(() -> {
+        });
+
+        private final Runnable release;
+
+        private Lease(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            release.run();
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package pl.codewise.canaveral.core.runtime;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.TestContextProvider;
-import pl.codewise.canaveral.core.util.PropertyHelper;
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
+import pl.codewise.canaveral.core.mock.MockCost;
+import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.runtime.dns.NameStore;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -14,15 +20,32 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 
 public final class Runner {
 
     private static final Logger log = LoggerFactory.getLogger(Runner.class);
     private static final Runner runner = new Runner();
-    private static final Object MONITOR = new Object();
+    private static final ReadWriteLock ENVIRONMENTS_LOCK = new ReentrantReadWriteLock();
 
     private final Map<String, RunnerCache> CACHE_BY_PROVIDER;
 
@@ -32,32 +55,95 @@ public final class Runner {
     }
 
     private Runner() {
-        this(new HashMap<>());
+        this(new ConcurrentHashMap<>());
     }
 
     public static Runner instance() {
         return runner;
     }
 
+    /**
+     * Environments of different configuration providers are initialized independently, so test classes using
+     * different configurations do not wait for each other. Configuration requesting reinitialization waits for all
+     * of them and is initialized exclusively. Running mocks configured the same way as in the new configuration are
+     * reused, all others as well as applications are restarted.
+     */
     public TestInstanceHelper configureRunnerForTest(Class<?> testClass) {
         log.debug("Configuring runner from [" + testClass + "]");
-        synchronized (MONITOR) {
-            ConfigureRunnerWith annotation = getConfigurationAnnotation(testClass);
-            if (annotation.reinitialize()) {
+        ConfigureRunnerWith annotation = getConfigurationAnnotation(testClass);
+        RunnerConfigurationProvider provider = instantiateRunnerConfigurationProvider(testClass, annotation);
+        if (annotation.reinitialize()) {
+            ENVIRONMENTS_LOCK.writeLock().lock();
+            try {
+                String canonicalName = provider.getClass().getCanonicalName();
+                RunnerCache runnerCache = new RunnerCache(canonicalName, provider.configure());
+                adoptRunningMocks(runnerCache);
                 CACHE_BY_PROVIDER.values().forEach(this::clearRunnerCache);
 
                 CACHE_BY_PROVIDER.clear();
+                CACHE_BY_PROVIDER.put(canonicalName, runnerCache);
+                return configureRunner(provider);
+            } finally {
+                ENVIRONMENTS_LOCK.writeLock().unlock();
             }
+        }
+
+        ENVIRONMENTS_LOCK.readLock().lock();
+        try {
+            return configureRunner(provider);
+        } finally {
+            ENVIRONMENTS_LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves started mocks of running caches to given cache, if they have the same ref and fingerprint, all mocks
+     * they depend on are moved as well and they run on the same clock as mocks moved before.
+     */
+    private void adoptRunningMocks(RunnerCache runnerCache) {
+        RunnerConfiguration configuration = runnerCache.getConfiguration();
+        RunnerConfiguration.MockProvidersConfiguration mockProvidersConfiguration =
+                configuration.getMockProvidersConfiguration();
+        if (mockProvidersConfiguration == null || configuration.isSharedEnvironment() ||
+                configuration.isKeepWarmEnvironment()) {
+            return;
+        }
 
-            RunnerConfigurationProvider provider = instantiateRunnerConfigurationProvider(testClass, annotation);
+        Set<String> adopted = new HashSet<>();
+        try {
+            mockProvidersConfiguration.forEach((ref, provider) -> {
+                if (!adopted.containsAll(mockProvidersConfiguration.getDependencies(ref))) {
+                    return;
+                }
+                String fingerprint = mockProvidersConfiguration.getFingerprint(ref);
+                CACHE_BY_PROVIDER.values().stream()
+                        .filter(cache -> !cache.isNotInitialized() && runnerCache.canAdoptMocksOf(cache))
+                        .map(cache -> cache.releaseRunningMock(ref, fingerprint))
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .findFirst()
+                        .ifPresent(runningMock -> {
+                            runnerCache.adoptRunningMock(ref, runningMock);
+                            adopted.add(ref);
+                        });
+            });
+        } catch (Exception e) {
+            throw new RunnerInitializationException(e);
+        }
+        if (!adopted.isEmpty()) {
+            decorateSimple("Reusing running mocks {}.", adopted);
+        }
+    }
 
-            String canonicalName = provider.getClass().getCanonicalName();
+    private TestInstanceHelper configureRunner(RunnerConfigurationProvider provider) {
+        String canonicalName = provider.getClass().getCanonicalName();
 
-            RunnerCache runnerCache = CACHE_BY_PROVIDER.computeIfAbsent(
-                    canonicalName,
-                    name -> new RunnerCache(canonicalName, provider.configure())
-            );
+        RunnerCache runnerCache = CACHE_BY_PROVIDER.computeIfAbsent(
+                canonicalName,
+                name -> new RunnerCache(canonicalName, provider.configure())
+        );
 
+        synchronized (runnerCache) {
             if (runnerCache.isNotInitialized()) {
                 if (runnerCache.hasInitializationAlreadyFailed()) {
                     decorateWarn("Initialization skipped due to errors!");
@@ -65,47 +151,70 @@ public final class Runner {
                 }
 
                 try {
-                    initializeCacheSafe(runnerCache);
+                    initializeCacheSafe(runnerCache, provider.getClass());
                     runnerCache.setInitialized();
                 } catch (Exception e) {
                     runnerCache.setInitializationFailedCause(e);
                     decorateError("Houston, we have a problem ..", e);
                     throw runnerCache.getInitializationCause();
+                } finally {
+                    writeStartupReport(runnerCache);
                 }
             }
-            return new TestInstanceHelper(runnerCache);
         }
+        return new TestInstanceHelper(runnerCache);
     }
 
     void clearRunnerCache(RunnerCache runnerCache) {
         if (runnerCache.isNotInitialized()) {
             return;
         }
-        synchronized (MONITOR) {
+        synchronized (runnerCache) {
+            if (runnerCache.isNotInitialized()) {
+                return;
+            }
             decorateSection("Process is shutting down!");
             decorateSimple("Clearing context for {}.", runnerCache.getProviderName());
 
-            try {
+            StartupReport report = runnerCache.getStartupReport();
+            try (CanaveralEvents.Phase shutdownEvent = CanaveralEvents.runnerPhase(runnerCache.getProviderName(),
+                    "shutdown")) {
                 RunnerConfiguration configuration = runnerCache.getConfiguration();
-                if (runnerCache.hasApplicationProvider()) {
-                    decorateSimple("Cleaning application.");
-                    configuration.getApplicationProvider().clean();
+                Map<String, ApplicationProvider> applications = runnerCache.getApplicationProviders();
+                if (!applications.isEmpty()) {
+                    decorateSimple("Cleaning applications {}.", applications.keySet());
+                    callApplications(applications, (name, application) -> {
+                        try (StartupReport.Measurement ignored = report.measure(applicationPhase(name, "clean"))) {
+                            application.clean();
+                        } catch (Exception e) {
+                            log.error("Could not clean application {}.", name, e);
+                        }
+                    });
                 }
 
                 if (runnerCache.hasTestConfigurationProvider()) {
                     decorateSimple("Cleaning test context.");
-                    configuration.getTestContextProvider().clean();
+                    try (StartupReport.Measurement ignored = report.measure("testContext.clean")) {
+                        configuration.getTestContextProvider().clean();
+                    }
                 }
 
+                runnerCache.detachSharedEnvironment();
+
                 decorateSimple("Closing remaining mocks now!");
-                runnerCache.callStopMocks();
+                List<String> overranMocks = runnerCache.callStopMocks();
+                if (!overranMocks.isEmpty()) {
+                    decorateWarn("Mocks {} did not stop within {} ms and were abandoned.", overranMocks,
+                            configuration.getMockShutdownTimeout().toMillis());
+                }
 
-                decorateSimple("Clearing system properties");
-                PropertyHelper.clearProperties(configuration.getSystemProperties().keySet());
+                decorateSimple("Clearing properties");
+                runnerCache.getProperties().clear();
             } catch (Exception e) {
                 log.error("Could not clean.", e);
             }
             runnerCache.setCleaned();
+            writeStartupReport(runnerCache);
         }
     }
 
@@ -133,25 +242,39 @@ public final class Runner {
         return annotation;
     }
 
-    private void initializeCacheSafe(RunnerCache runnerCache) {
+    private void initializeCacheSafe(RunnerCache runnerCache,
+            Class<? extends RunnerConfigurationProvider> providerClass) {
         printBanner();
 
         RunnerConfiguration configuration = runnerCache.getConfiguration();
+        StartupReport report = runnerCache.getStartupReport();
 
-        decorateSection("Setting system properties");
-        PropertyHelper.setProperties(configuration.getSystemProperties());
-        PropertyHelper.setProperties(configuration.getRandomPortsProperty(), runnerCache.getFreePort());
+        decorateSection("Setting properties");
+        try (StartupReport.Measurement ignored = report.measure("properties")) {
+            runnerCache.getProperties().setAll(configuration.getSystemProperties());
+            runnerCache.getProperties().set(configuration.getRandomPortsProperty(),
+                    Integer.toString(runnerCache.getFreePort()));
+        }
 
         registerShutdownHook(runnerCache);
 
-        decorateSection("Starting mocks");
-        initializeMocks(runnerCache, configuration);
+        CompletableFuture<Void> remainingMocks = CompletableFuture.completedFuture(null);
+        if (configuration.isSharedEnvironment() || configuration.isKeepWarmEnvironment()) {
+            decorateSection("Attaching to shared mocks");
+            attachSharedEnvironment(runnerCache, providerClass);
+        } else {
+            decorateSection("Starting mocks");
+            try (CanaveralEvents.Phase ignored = CanaveralEvents.runnerPhase(runnerCache.getProviderName(), "mocks")) {
+                remainingMocks = initializeMocks(runnerCache, configuration);
+            }
+        }
 
-        if (runnerCache.hasApplicationProvider()) {
+        if (!runnerCache.getApplicationProviders().isEmpty()) {
             decorateSection("Starting application");
-            initializeApplication(runnerCache, configuration.getApplicationProvider());
+            initializeApplications(runnerCache, remainingMocks);
         } else {
             log.trace("Application provider was not configured");
+            awaitMocks(remainingMocks);
         }
 
         if (runnerCache.hasTestConfigurationProvider()) {
@@ -161,54 +284,347 @@ public final class Runner {
             log.trace("Test configuration provider was not configured");
         }
 
+        if (configuration.getWarmup() != null) {
+            decorateSection("Warming up application");
+            warmUpApplication(runnerCache, configuration.getWarmup());
+        }
+
+        decorateSection("Startup report");
+        report.getPhases().forEach(phase -> decorateSimple("{} took {} ms.", phase.getName(),
+                phase.getDuration().toMillis()));
+
         decorateSection("Test Runner configured. Good luck!");
     }
 
+    private void attachSharedEnvironment(RunnerCache cache,
+            Class<? extends RunnerConfigurationProvider> providerClass) {
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("mocks.attach")) {
+            SharedEnvironment environment = SharedEnvironment.attach(providerClass, cache.getConfiguration());
+            cache.setSharedEnvironment(environment);
+            cache.getProperties().setAll(environment.getPublishedProperties());
+            Properties routes = environment.getPublishedRoutes();
+            if (!routes.isEmpty()) {
+                NameStore nameStore = NameStore.getInstance();
+                routes.forEach((hostName, address) -> nameStore.route((String) hostName, (String) address));
+                nameStore.install();
+            }
+            decorateSimple("Attached to mocks of {}.", providerClass.getName());
+        } catch (Exception e) {
+            throw new RunnerInitializationException(e);
+        }
+        cache.callAllMocksCreated();
+    }
+
+    /**
+     * Starts only mocks of given configuration, used by {@link EnvironmentDaemon} to host them for other JVMs.
+     */
+    RunnerCache startMocks(RunnerConfigurationProvider provider) {
+        RunnerCache runnerCache = new RunnerCache(provider.getClass().getCanonicalName(), provider.configure());
+        decorateSection("Starting shared mocks");
+        awaitMocks(initializeMocks(runnerCache, runnerCache.getConfiguration()));
+        runnerCache.setInitialized();
+        return runnerCache;
+    }
+
+    void stopMocks(RunnerCache runnerCache) {
+        decorateSimple("Closing shared mocks of {}.", runnerCache.getProviderName());
+        runnerCache.callStopMocks();
+        runnerCache.setCleaned();
+    }
+
+    private void writeStartupReport(RunnerCache runnerCache) {
+        String directory = runnerCache.getConfiguration().getStartupReportDirectory();
+        if (directory == null) {
+            return;
+        }
+        try {
+            runnerCache.getStartupReport().writeTo(Paths.get(directory));
+        } catch (Exception e) {
+            log.warn("Could not write startup report to {}.", directory, e);
+        }
+    }
+
     private void registerShutdownHook(RunnerCache runnerCache) {
         Thread hook = new Thread(() -> clearRunnerCache(runnerCache));
         Runtime.getRuntime().addShutdownHook(hook);
     }
 
-    private void initializeMocks(RunnerCache cache, RunnerConfiguration configuration)
+    /**
+     * @return completion of mocks which were only prepared so far and are started in the background, see
+     * {@link RunnerConfiguration.Builder#withPipelinedStartup()}. Already completed if all mocks are started.
+     */
+    private CompletableFuture<Void> initializeMocks(RunnerCache cache, RunnerConfiguration configuration)
             throws RunnerInitializationException {
         RunnerConfiguration.MockProvidersConfiguration mockProvidersConfiguration = configuration
                 .getMockProvidersConfiguration();
+        Map<String, LazyMockProvider> pipelined = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        RunnerConfiguration.MockProviderCreator mockStarter = (ref, provider) -> {
+            try (ScopedProperties.Attribution ignored = cache.getProperties().attributeTo(ref)) {
+                startMock(cache, configuration, ref, provider, pipelined);
+            }
+        };
 
         try {
-            mockProvidersConfiguration.forEach((ref, provider) -> {
-                provider.start(cache);
-                decorateSimple("Starting {} on port {}.", ref, provider.getPort());
+            int mockStartupThreads = configuration.getMockStartupThreads();
+            if (mockStartupThreads > 1) {
+                decorateSimple("Starting mocks in parallel on {} threads.", mockStartupThreads);
+                new ParallelMockStarter(mockProvidersConfiguration, mockStartupThreads).startAll(mockStarter);
+            } else {
+                mockProvidersConfiguration.forEach(mockStarter);
+            }
+        } catch (Exception e) {
+            throw new RunnerInitializationException(e);
+        }
 
-                cache.putMockProvider(provider);
-                cache.putMockObject(ref, provider.providedMock());
+        if (pipelined.isEmpty()) {
+            finishMocks(cache);
+            return CompletableFuture.completedFuture(null);
+        }
+        ExecutorService pipeline = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("canaveral-mock-pipeline-%d")
+                .setDaemon(true)
+                .build());
+        ParallelMockStarter pipelinedStarter = new ParallelMockStarter(mockProvidersConfiguration,
+                Math.max(1, configuration.getMockStartupThreads()));
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    pipelinedStarter.startAll(pipelined.keySet(), (ref, provider) -> startPrepared(cache, ref,
+                            pipelined.get(ref), mockProvidersConfiguration.getCost(ref)));
+                } catch (Exception e) {
+                    Throwables.throwIfUnchecked(e);
+                    throw new RunnerInitializationException(e);
+                }
+                finishMocks(cache);
+            }, pipeline);
+        } finally {
+            pipeline.shutdown();
+        }
+    }
 
-            });
-            decorateSimple("All mocks created.");
+    private void startMock(RunnerCache cache, RunnerConfiguration configuration, String ref, MockProvider provider,
+            Map<String, LazyMockProvider> pipelined) throws Exception {
+        MockProvider adopted = cache.resumeAdoptedMock(ref);
+        if (adopted != null) {
+            decorateSimple("Reusing {} on port {}.", ref, adopted.getPort());
+            return;
+        }
 
-            cache.callAllMocksCreated();
+        RunnerConfiguration.MockProvidersConfiguration mockProvidersConfiguration =
+                configuration.getMockProvidersConfiguration();
+
+        if (configuration.isLazyMockStartup() && provider instanceof LazyMockProvider) {
+            LazyMockStarter lazyStarter = new LazyMockStarter(ref, (LazyMockProvider) provider, cache);
+            try (StartupReport.Measurement ignored = cache.getStartupReport()
+                    .measure("mock." + ref + ".prepare")) {
+                lazyStarter.prepare();
+            }
+            decorateSimple("Prepared {} on port {}, it will be started on first use.", ref, provider.getPort());
+
+            cache.putMockProvider(provider);
+            cache.putLazyMock(ref, lazyStarter);
+            return;
+        }
+
+        if (configuration.isPipelinedStartup() && provider instanceof LazyMockProvider &&
+                !mockProvidersConfiguration.hasDependants(ref)) {
+            try (StartupReport.Measurement ignored = cache.getStartupReport()
+                    .measure("mock." + ref + ".prepare")) {
+                ((LazyMockProvider) provider).prepare(cache);
+            }
+            decorateSimple("Prepared {} on port {}, it will be started along with application.", ref,
+                    provider.getPort());
+
+            cache.putMockProvider(provider);
+            pipelined.put(ref, (LazyMockProvider) provider);
+            return;
+        }
+
+        try (ResourceBudget.Lease lease = acquireBudget(cache, ref, mockProvidersConfiguration.getCost(ref));
+             StartupReport.Measurement ignored = cache.getStartupReport().measure("mock." + ref + ".start")) {
+            provider.start(cache);
+        }
+        decorateSimple("Starting {} on port {}.", ref, provider.getPort());
+
+        cache.putMockProvider(provider);
+        cache.putMockObject(ref, provider.providedMock());
+    }
+
+    private void startPrepared(RunnerCache cache, String ref, LazyMockProvider provider, MockCost cost) {
+        try (ScopedProperties.Attribution attribution = cache.getProperties().attributeTo(ref);
+             ResourceBudget.Lease lease = acquireBudget(cache, ref, cost);
+             StartupReport.Measurement ignored = cache.getStartupReport().measure("mock." + ref + ".start")) {
+            provider.startPrepared(cache);
         } catch (Exception e) {
             throw new RunnerInitializationException(e);
         }
+        decorateSimple("Started {} on port {}.", ref, provider.getPort());
+
+        cache.putMockObject(ref, provider.providedMock());
+    }
+
+    /**
+     * Time spent waiting for the budget is reported as {@code mock.<ref>.budget}, apart from the start itself.
+     */
+    private ResourceBudget.Lease acquireBudget(RunnerCache cache, String ref, MockCost cost)
+            throws InterruptedException {
+        if (cost.isLight()) {
+            return ResourceBudget.Lease.NONE;
+        }
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("mock." + ref + ".budget")) {
+            decorateSimple("Waiting for budget of {} to start it, cost {}.", ref, cost);
+            return ResourceBudget.instance().acquire(cost);
+        }
+    }
+
+    private void finishMocks(RunnerCache cache) {
+        decorateSimple("All mocks created.");
+
+        try (StartupReport.Measurement ignored = cache.getStartupReport()
+                .measure("listeners.afterAllMocksCreated")) {
+            cache.callAllMocksCreated();
+        }
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("mocks.snapshot")) {
+            cache.snapshotAll();
+        }
+    }
+
+    private void awaitMocks(CompletableFuture<?> remainingMocks) {
+        try {
+            remainingMocks.join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RunnerInitializationException(e.getCause());
+        }
+    }
+
+    /**
+     * Starts all applications concurrently, each one once mocks it requires are started, and checks whether they can
+     * proceed once all mocks are started.
+     */
+    private void initializeApplications(RunnerCache cache, CompletableFuture<Void> remainingMocks) {
+        Map<String, ApplicationProvider> applications = cache.getApplicationProviders();
+        callApplications(applications, (name, application) -> startApplication(cache, name, application,
+                remainingMocks));
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("mocks.await")) {
+            awaitMocks(remainingMocks);
+        }
+        callApplications(applications, (name, application) -> awaitApplication(cache, name, application));
+    }
+
+    private void startApplication(RunnerCache cache, String name, ApplicationProvider application,
+            CompletableFuture<Void> remainingMocks) {
+        StartupReport report = cache.getStartupReport();
+        Set<String> requiredMocks = cache.getConfiguration().getApplicationDependencies(name);
+        if (!requiredMocks.isEmpty()) {
+            try (StartupReport.Measurement ignored = report.measure(applicationPhase(name, "awaitMocks"))) {
+                // fails as soon as any remaining mock fails, completes once required ones are started
+                awaitMocks(CompletableFuture.anyOf(cache.whenMocksStarted(requiredMocks), remainingMocks));
+            }
+        }
+        try (StartupReport.Measurement ignored = report.measure(applicationPhase(name, "start"))) {
+            application.start(cache);
+        }
+        decorateSimple("Started {} on port {}.", name, application.getPort());
     }
 
-    private void initializeApplication(RunnerCache cache, ApplicationProvider applicationProvider) {
-        applicationProvider.start(cache);
-        if (applicationProvider.canProceed(cache)) {
-            decorateSimple("Application under test is ready to accept requests!");
+    private void awaitApplication(RunnerCache cache, String name, ApplicationProvider application) {
+        boolean canProceed;
+        try (StartupReport.Measurement ignored = cache.getStartupReport()
+                .measure(applicationPhase(name, "canProceed"))) {
+            canProceed = application.canProceed(cache);
+        }
+        if (canProceed) {
+            decorateSimple("{} is ready to accept requests!", RunnerConfiguration.DEFAULT_APPLICATION.equals(name) ?
+                    "Application under test" : "Application " + name);
         } else {
-            throw new InitializationError("Application is not ready yet. See configured progress assertion.");
+            throw new InitializationError((RunnerConfiguration.DEFAULT_APPLICATION.equals(name) ? "Application" :
+                    "Application " + name) + " is not ready yet. See configured progress assertion.");
         }
     }
 
+    /**
+     * Calls all applications at once, or on the calling thread when there is only one.
+     *
+     * @throws RuntimeException thrown by the first application which failed, after all calls finished.
+     */
+    private void callApplications(Map<String, ApplicationProvider> applications,
+            BiConsumer<String, ApplicationProvider> call) {
+        if (applications.size() == 1) {
+            applications.forEach(call);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(applications.size(), new ThreadFactoryBuilder()
+                .setNameFormat("canaveral-application-%d")
+                .setDaemon(true)
+                .build());
+        try {
+            List<CompletableFuture<Void>> calls = new ArrayList<>();
+            applications.forEach((name, application) -> calls.add(CompletableFuture.runAsync(
+                    () -> call.accept(name, application), executor)));
+            Throwable failure = null;
+            for (CompletableFuture<Void> result : calls) {
+                try {
+                    result.join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                Throwables.throwIfUnchecked(failure);
+                throw new RunnerInitializationException(failure);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return phase of application under test named as before multiple applications were supported, ex.
+     * {@code application.start}, and {@code application.<name>.start} for others.
+     */
+    private static String applicationPhase(String name, String phase) {
+        return RunnerConfiguration.DEFAULT_APPLICATION.equals(name) ? "application." + phase :
+                "application." + name + "." + phase;
+    }
+
     private void initializeTestContext(RunnerCache cache, TestContextProvider testContextProvider) {
-        testContextProvider.initialize(cache);
-        if (testContextProvider.canProceed(cache)) {
+        StartupReport report = cache.getStartupReport();
+        try (StartupReport.Measurement ignored = report.measure("testContext.initialize")) {
+            testContextProvider.initialize(cache);
+        }
+        boolean canProceed;
+        try (StartupReport.Measurement ignored = report.measure("testContext.canProceed")) {
+            canProceed = testContextProvider.canProceed(cache);
+        }
+        if (canProceed) {
             decorateSimple("Test setup is ready.");
         } else {
             throw new InitializationError("Test context is not ready yet. See configured progress assertion.");
         }
     }
 
+    private void warmUpApplication(RunnerCache cache, Warmup warmup) {
+        List<Duration> curve;
+        cache.setWarmingUp(true);
+        try (StartupReport.Measurement ignored = cache.getStartupReport().measure("warmup")) {
+            curve = warmup.run(cache);
+        } catch (Exception e) {
+            throw new RunnerInitializationException(e);
+        } finally {
+            cache.setWarmingUp(false);
+        }
+        cache.getStartupReport().recordWarmup(curve);
+        decorateSimple("Warmed up in {} iterations, last took {} ms.", curve.size(),
+                curve.get(curve.size() - 1).toMillis());
+    }
+
     private void printBanner() {
         try (
                 InputStream startingBanner = getClass().getResourceAsStream("/opening-banner.txt");
@@ -2,32 +2,64 @@ package pl.codewise.canaveral.core.runtime;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.Snapshotable;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 class RunnerCache implements RunnerContext {
 
     private static final Logger log = LoggerFactory.getLogger(RunnerCache.class);
 
-    private final Map<String, Object> objects;
+    private final MockRegistry mocks;
     private final Set<MockProvider> mockProviders;
     private final Set<LifeCycleListener> listeners;
-
-    private boolean isInitialized = false;
-    private RunnerInitializationException initializationException;
+    private final Map<String, LazyMockStarter> lazyMocks;
+    private final Map<String, RunningMock> adoptedMocks;
+    private final Map<String, CompletableFuture<Void>> startedMocks;
+    private final Map<Class<?>, InjectionPlan> injectionPlans;
+    private final StartupReport startupReport;
+    private final ProgressSignal progressSignal = new ProgressSignal();
+    private final ScopedProperties properties;
+    private final LifeCycleEvents lifeCycleEvents;
+
+    private volatile boolean allMocksCreated = false;
+    private volatile boolean snapshotTaken = false;
+    private volatile boolean warmingUp = false;
+    private volatile VirtualClock clock = new VirtualClock();
+    private boolean clockAdopted = false;
+    private SharedEnvironment sharedEnvironment;
+
+    private volatile boolean isInitialized = false;
+    private volatile RunnerInitializationException initializationException;
 
     private String providerName;
     private RunnerConfiguration configuration;
@@ -35,9 +67,16 @@ class RunnerCache implements RunnerContext {
     RunnerCache(String canonicalName, RunnerConfiguration configuration) {
         this.providerName = canonicalName;
         this.configuration = configuration;
-        this.objects = new HashMap<>();
-        this.mockProviders = new HashSet<>();
-        this.listeners = new HashSet<>();
+        this.mocks = new MockRegistry();
+        this.mockProviders = ConcurrentHashMap.newKeySet();
+        this.listeners = ConcurrentHashMap.newKeySet();
+        this.lazyMocks = new ConcurrentHashMap<>();
+        this.adoptedMocks = new ConcurrentHashMap<>();
+        this.startedMocks = new ConcurrentHashMap<>();
+        this.injectionPlans = new ConcurrentHashMap<>();
+        this.startupReport = new StartupReport(canonicalName);
+        this.properties = new ScopedProperties(configuration.isSystemPropertiesExport());
+        this.lifeCycleEvents = new LifeCycleEvents(startupReport);
     }
 
     @Override
@@ -55,6 +94,19 @@ class RunnerCache implements RunnerContext {
         return configuration.getApplicationProvider();
     }
 
+    @Override
+    public ApplicationProvider getApplicationProvider(String name) {
+        ApplicationProvider applicationProvider = getApplicationProviders().get(name);
+        Preconditions.checkArgument(applicationProvider != null, "Application " + name + " was not configured.");
+        return applicationProvider;
+    }
+
+    @Override
+    public Map<String, ApplicationProvider> getApplicationProviders() {
+        Map<String, ApplicationProvider> applicationProviders = configuration.getApplicationProviders();
+        return applicationProviders == null ? Collections.emptyMap() : applicationProviders;
+    }
+
     @Override
     public boolean hasTestConfigurationProvider() {
         return configuration.getTestContextProvider() != null;
@@ -73,6 +125,17 @@ class RunnerCache implements RunnerContext {
         }
     }
 
+    @Override
+    public Object getApplicationBean(String applicationName, Class<?> beanType, Set<Annotation> knownAnnotations) {
+        ApplicationProvider applicationProvider = getApplicationProvider(applicationName);
+        try {
+            return applicationProvider.findBeanOrThrow(beanType, knownAnnotations);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Could not find bean identified by " + beanType.getCanonicalName() +
+                    " in application " + applicationName, e);
+        }
+    }
+
     @Override
     public Object getTestBean(Class<?> beanType, Set<Annotation> knownAnnotations) {
         try {
@@ -98,16 +161,41 @@ class RunnerCache implements RunnerContext {
 
     @Override
     public Object getMock(String ref) {
-        Object o = objects.get(ref);
+        checkMocksHostedHere();
+        LazyMockStarter lazyMock = lazyMocks.get(ref);
+        if (lazyMock != null) {
+            lazyMock.ensureStarted();
+        }
+        Object o = mocks.get(ref);
         Preconditions.checkArgument(Objects.nonNull(o), ref + " was not found. Cannot inject this mock!");
         return o;
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
     public <T> T getMock(Class<?> mockType) {
-        return (T) objects.values().stream()
-                .filter(object -> mockType.isAssignableFrom(object.getClass()))
-                .findFirst()
+        return findMock(mockType, mocks::findFirst);
+    }
+
+    /**
+     * Same as {@link #getMock(Class)}, but fails if more than one mock is of given type.
+     */
+    <T> T getUniqueMock(Class<?> mockType) {
+        return findMock(mockType, mocks::findUnique);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T findMock(Class<?> mockType, Function<Class<?>, Optional<Object>> lookup) {
+        checkMocksHostedHere();
+        Optional<Object> mock = lookup.apply(mockType);
+        if (!mock.isPresent() && !lazyMocks.isEmpty()) {
+            // type of provided mock is not known until it is started, its provider is the best guess
+            List<LazyMockStarter> matching = lazyMocks.values().stream()
+                    .filter(lazyMock -> !lazyMock.isStarted() && mockType.isInstance(lazyMock.getProvider()))
+                    .collect(Collectors.toList());
+            (matching.isEmpty() ? lazyMocks.values() : matching).forEach(LazyMockStarter::ensureStarted);
+            mock = lookup.apply(mockType);
+        }
+        return (T) mock
                 .orElseThrow(() -> new IllegalArgumentException("Could not find any mock of type " + mockType));
     }
 
@@ -121,20 +209,193 @@ class RunnerCache implements RunnerContext {
     }
 
     void putMockObject(String ref, Object mock) {
-        objects.put(ref, mock);
+        mocks.register(ref, mock);
+        startedMock(ref).complete(null);
+    }
+
+    void putLazyMock(String ref, LazyMockStarter lazyMock) {
+        lazyMocks.put(ref, lazyMock);
+        // lazy mock is ready to accept connections once it is prepared
+        startedMock(ref).complete(null);
     }
 
+    /**
+     * @return completed once all mocks of given refs are started or prepared to start lazily.
+     */
+    CompletableFuture<Void> whenMocksStarted(Set<String> refs) {
+        return CompletableFuture.allOf(refs.stream()
+                .map(this::startedMock)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> startedMock(String ref) {
+        return startedMocks.computeIfAbsent(ref, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * Hands started mock over to another cache, if it was configured the same way. Mock is restored to its snapshot
+     * and is not stopped when this cache is cleaned.
+     */
+    Optional<RunningMock> releaseRunningMock(String ref, String fingerprint) {
+        RunnerConfiguration.MockProvidersConfiguration configured = configuration.getMockProvidersConfiguration();
+        if (sharedEnvironment != null || configured == null || !configured.getRefs().contains(ref) ||
+                fingerprint == null || !fingerprint.equals(configured.getFingerprint(ref))) {
+            return Optional.empty();
+        }
+        MockProvider provider = configured.get(ref);
+        Object mock = mocks.get(ref);
+        if (mock == null || !mockProviders.contains(provider) || findNotStartedLazyMock(provider).isPresent()) {
+            return Optional.empty();
+        }
+
+        if (snapshotTaken && provider instanceof Snapshotable) {
+            ((Snapshotable) provider).restoreSnapshot();
+        }
+        mockProviders.remove(provider);
+        mocks.unregister(ref);
+        lazyMocks.remove(ref);
+        boolean listening = listeners.remove(provider);
+        return Optional.of(new RunningMock(provider, mock, properties.getOwnedBy(ref),
+                listening ? (LifeCycleListener) provider : null, clock));
+    }
+
+    /**
+     * Mock keeps timers of the clock it was started with and this cache has one clock, so it adopts mocks started
+     * with the same clock only.
+     */
+    boolean canAdoptMocksOf(RunnerCache other) {
+        return !clockAdopted || other.clock == clock;
+    }
+
+    /**
+     * Takes over mock released by another cache. It is stopped along with mocks of this cache, but becomes visible
+     * only once it is resumed in its turn to start. This cache takes the clock of the mock over, see
+     * {@link #canAdoptMocksOf(RunnerCache)}.
+     */
+    void adoptRunningMock(String ref, RunningMock runningMock) {
+        Preconditions.checkState(!clockAdopted || runningMock.clock == clock,
+                "Mock %s runs on other clock than mocks already adopted by %s.", ref, providerName);
+        adoptedMocks.put(ref, runningMock);
+        mockProviders.add(runningMock.provider);
+        clock = runningMock.clock;
+        clockAdopted = true;
+    }
+
+    /**
+     * Publishes properties and mock object of adopted mock again.
+     *
+     * @return adopted mock provider or null if mock of given ref was not adopted and has to be started.
+     */
+    MockProvider resumeAdoptedMock(String ref) {
+        RunningMock adopted = adoptedMocks.remove(ref);
+        if (adopted == null) {
+            return null;
+        }
+        adopted.properties.forEach(properties::set);
+        putMockObject(ref, adopted.mock);
+        if (adopted.listener != null) {
+            register(adopted.listener);
+        }
+        return adopted.provider;
+    }
+
+
+    /**
+     * @return injection plan built on first request for given test class and reused until this cache is cleaned.
+     */
+    InjectionPlan getInjectionPlan(Class<?> testClass) {
+        return injectionPlans.computeIfAbsent(testClass, type -> InjectionPlan.create(type, this));
+    }
+
+    @Override
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    @Override
+    public ScopedProperties getProperties() {
+        return properties;
+    }
+
+    @Override
+    public void snapshotAll() {
+        startedSnapshotables().forEach(Snapshotable::takeSnapshot);
+        snapshotTaken = true;
+    }
+
+    @Override
+    public void restoreAll() {
+        List<Snapshotable> snapshotables = startedSnapshotables().collect(Collectors.toList());
+        if (snapshotables.isEmpty()) {
+            return;
+        }
+        try (CanaveralEvents.Phase ignored = CanaveralEvents.runnerPhase(providerName, "mocks.restore")) {
+            lifeCycleEvents.callConcurrently("restoreSnapshot", snapshotables,
+                    snapshotable -> ((MockProvider) snapshotable).getMockName(), Snapshotable::restoreSnapshot);
+        }
+    }
+
+    /**
+     * Captures baseline of lazily started mock, which was not started when all other mocks were captured.
+     */
+    void onLazyMockStarted(MockProvider provider) {
+        if (snapshotTaken && provider instanceof Snapshotable) {
+            ((Snapshotable) provider).takeSnapshot();
+        }
+    }
+
+    private Stream<Snapshotable> startedSnapshotables() {
+        return mockProviders.stream()
+                .filter(provider -> provider instanceof Snapshotable)
+                .filter(provider -> !findNotStartedLazyMock(provider).isPresent())
+                .map(provider -> (Snapshotable) provider);
+    }
+
+    @Override
+    public void signalProgress() {
+        progressSignal.signal();
+    }
+
+    @Override
+    public boolean isWarmingUp() {
+        return warmingUp;
+    }
+
+    void setWarmingUp(boolean warmingUp) {
+        this.warmingUp = warmingUp;
+    }
+
+    @Override
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    ProgressSignal getProgressSignal() {
+        return progressSignal;
+    }
 
     @Override
     public void register(LifeCycleListener listener) {
         listeners.add(listener);
+        if (allMocksCreated) {
+            // registered by lazily started mock
+            listener.afterAllMocksCreated(this);
+        }
     }
 
     void callAllMocksCreated() {
+        allMocksCreated = true;
         sortListenersByPriority()
                 .forEach(l -> l.afterAllMocksCreated(this));
     }
 
+    /**
+     * Delivers one of {@link LifeCycleEvents} to registered listeners, see {@link LifeCycleListener}.
+     */
+    void publish(String event, Consumer<LifeCycleListener> call) {
+        lifeCycleEvents.publish(event, sortListenersByPriority(), call);
+    }
+
     private List<LifeCycleListener> sortListenersByPriority() {
         ArrayList<LifeCycleListener> sortedListeners = new ArrayList<>(listeners);
         sortedListeners.sort(Comparator.comparing(LifeCycleListener::getPriority));
@@ -142,14 +403,101 @@ class RunnerCache implements RunnerContext {
         return ImmutableList.copyOf(sortedListeners);
     }
 
-    void callStopMocks() {
-        mockProviders.forEach(l -> {
-            try {
-                l.stop();
-            } catch (Exception e) {
-                log.error("Could not stop mock {}.", l);
+    /**
+     * @return names of mocks which did not stop in time, always empty when mocks are stopped one by one.
+     */
+    List<String> callStopMocks() {
+        Duration timeout = configuration.getMockShutdownTimeout();
+        if (timeout == null || mockProviders.isEmpty()) {
+            mockProviders.forEach(this::stopMock);
+            return Collections.emptyList();
+        }
+        return callStopMocksInParallel(timeout);
+    }
+
+    private List<String> callStopMocksInParallel(Duration timeout) {
+        ExecutorService executor = Executors.newFixedThreadPool(mockProviders.size(), new ThreadFactoryBuilder()
+                .setNameFormat("canaveral-mock-stopper-%d")
+                .setDaemon(true)
+                .build());
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + timeout.toNanos();
+
+        Map<MockProvider, Future<?>> stops = new LinkedHashMap<>();
+        mockProviders.forEach(provider -> stops.put(provider, executor.submit(() -> stopMock(provider))));
+        executor.shutdown();
+
+        List<String> overran = new ArrayList<>();
+        boolean interrupted = false;
+        for (Map.Entry<MockProvider, Future<?>> entry : stops.entrySet()) {
+            MockProvider provider = entry.getKey();
+            Future<?> stop = entry.getValue();
+            if (!interrupted) {
+                try {
+                    stop.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    continue;
+                } catch (TimeoutException e) {
+                    // abandoned below
+                } catch (InterruptedException e) {
+                    // remaining mocks are abandoned without waiting for them
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.error("Could not stop mock {}.", provider, e.getCause());
+                    continue;
+                }
+            }
+            if (!stop.isDone()) {
+                overran.add(provider.getMockName());
+                startupReport.markOverran(stopPhase(provider), startedAt, timeout);
+                stop.cancel(true);
             }
-        });
+        }
+        return overran;
+    }
+
+    private void stopMock(MockProvider provider) {
+        Optional<LazyMockStarter> notStarted = findNotStartedLazyMock(provider);
+        if (notStarted.isPresent()) {
+            notStarted.get().disarm();
+            return;
+        }
+        try (StartupReport.Measurement ignored = startupReport.measure(stopPhase(provider))) {
+            provider.stop();
+        } catch (Exception e) {
+            log.error("Could not stop mock {}.", provider);
+        }
+    }
+
+    private Optional<LazyMockStarter> findNotStartedLazyMock(MockProvider provider) {
+        return lazyMocks.values().stream()
+                .filter(lazyMock -> lazyMock.getProvider() == provider && !lazyMock.isStarted())
+                .findFirst();
+    }
+
+    private static String stopPhase(MockProvider provider) {
+        return "mock." + provider.getMockName() + ".stop";
+    }
+
+    private void checkMocksHostedHere() {
+        Preconditions.checkState(sharedEnvironment == null, "Mocks of %s are hosted by shared environment daemon, " +
+                "they cannot be injected nor their rules changed from test JVM.", providerName);
+    }
+
+    void setSharedEnvironment(SharedEnvironment sharedEnvironment) {
+        this.sharedEnvironment = sharedEnvironment;
+    }
+
+    void detachSharedEnvironment() {
+        if (sharedEnvironment == null) {
+            return;
+        }
+        try {
+            sharedEnvironment.close();
+        } catch (IOException e) {
+            log.warn("Could not detach from shared environment.", e);
+        }
+        sharedEnvironment = null;
     }
 
     String getProviderName() {
@@ -162,6 +510,7 @@ class RunnerCache implements RunnerContext {
 
     void setCleaned() {
         isInitialized = false;
+        injectionPlans.clear();
     }
 
     RunnerInitializationException getInitializationCause() {
@@ -171,4 +520,22 @@ class RunnerCache implements RunnerContext {
     void setInitializationFailedCause(Exception e) {
         this.initializationException = new RunnerInitializationException(e);
     }
+
+    static final class RunningMock {
+
+        private final MockProvider provider;
+        private final Object mock;
+        private final Map<String, String> properties;
+        private final LifeCycleListener listener;
+        private final VirtualClock clock;
+
+        private RunningMock(MockProvider provider, Object mock, Map<String, String> properties,
+                LifeCycleListener listener, VirtualClock clock) {
+            this.provider = provider;
+            this.mock = mock;
+            this.properties = properties;
+            this.listener = listener;
+            this.clock = clock;
+        }
+    }
 }
@@ -3,37 +3,84 @@ package pl.codewise.canaveral.core.runtime;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.TestContextProvider;
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
 import pl.codewise.canaveral.core.mock.MockConfig;
+import pl.codewise.canaveral.core.mock.MockCost;
 import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.Snapshotable;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RunnerConfiguration {
 
-    private final ApplicationProvider applicationProvider;
+    /**
+     * Name of the application under test, set by {@link Builder#withApplicationProvider(ApplicationProvider)}.
+     */
+    public static final String DEFAULT_APPLICATION = "application";
+
+    private final Map<String, ApplicationProvider> applicationProviders;
+    private final Map<String, Set<String>> applicationDependencies;
     private final TestContextProvider testContextProvider;
+    private final Warmup warmup;
     private final MockProvidersConfiguration mockProvidersConfiguration;
     private final Properties systemProperties;
     private final Set<String> randomPortsProperty;
+    private final int mockStartupThreads;
+    private final String startupReportDirectory;
+    private final Duration mockShutdownTimeout;
+    private final boolean lazyMockStartup;
+    private final boolean restoreMocksBeforeEachTest;
+    private final boolean sharedEnvironment;
+    private final boolean keepWarmEnvironment;
+    private final boolean pipelinedStartup;
+    private final boolean systemPropertiesExport;
 
     private RunnerConfiguration(
-            ApplicationProvider applicationProvider,
+            Map<String, ApplicationProvider> applicationProviders,
+            Map<String, Set<String>> applicationDependencies,
             TestContextProvider testContextProvider,
+            Warmup warmup,
             MockProvidersConfiguration mockProvidersConfiguration,
             Properties systemProperties,
-            Set<String> randomPortsProperty) {
-        this.applicationProvider = applicationProvider;
+            Set<String> randomPortsProperty,
+            int mockStartupThreads,
+            String startupReportDirectory,
+            Duration mockShutdownTimeout,
+            boolean lazyMockStartup,
+            boolean restoreMocksBeforeEachTest,
+            boolean sharedEnvironment,
+            boolean keepWarmEnvironment,
+            boolean pipelinedStartup,
+            boolean systemPropertiesExport) {
+        this.applicationProviders = applicationProviders;
+        this.applicationDependencies = applicationDependencies;
         this.testContextProvider = testContextProvider;
+        this.warmup = warmup;
         this.mockProvidersConfiguration = mockProvidersConfiguration;
         this.systemProperties = systemProperties;
         this.randomPortsProperty = randomPortsProperty;
+        this.mockStartupThreads = mockStartupThreads;
+        this.startupReportDirectory = startupReportDirectory;
+        this.mockShutdownTimeout = mockShutdownTimeout;
+        this.lazyMockStartup = lazyMockStartup;
+        this.restoreMocksBeforeEachTest = restoreMocksBeforeEachTest;
+        this.sharedEnvironment = sharedEnvironment;
+        this.keepWarmEnvironment = keepWarmEnvironment;
+        this.pipelinedStartup = pipelinedStartup;
+        this.systemPropertiesExport = systemPropertiesExport;
     }
 
     public static Builder builder() {
@@ -47,22 +94,57 @@ public class RunnerConfiguration {
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-                .add("applicationProvider", applicationProvider)
+                .add("applicationProviders", applicationProviders)
+                .add("applicationDependencies", applicationDependencies)
                 .add("testContextProvider", testContextProvider)
+                .add("warmup", warmup)
                 .add("mockProvidersConfiguration", mockProvidersConfiguration)
                 .add("systemProperties", systemProperties)
                 .add("randomPortsProperty", randomPortsProperty)
+                .add("mockStartupThreads", mockStartupThreads)
+                .add("startupReportDirectory", startupReportDirectory)
+                .add("mockShutdownTimeout", mockShutdownTimeout)
+                .add("lazyMockStartup", lazyMockStartup)
+                .add("restoreMocksBeforeEachTest", restoreMocksBeforeEachTest)
+                .add("sharedEnvironment", sharedEnvironment)
+                .add("keepWarmEnvironment", keepWarmEnvironment)
+                .add("pipelinedStartup", pipelinedStartup)
+                .add("systemPropertiesExport", systemPropertiesExport)
                 .toString();
     }
 
+    /**
+     * @return application under test or null if it was not configured.
+     */
     public ApplicationProvider getApplicationProvider() {
-        return applicationProvider;
+        return applicationProviders.get(DEFAULT_APPLICATION);
+    }
+
+    /**
+     * @return all applications by their names, including the application under test.
+     */
+    public Map<String, ApplicationProvider> getApplicationProviders() {
+        return Collections.unmodifiableMap(applicationProviders);
+    }
+
+    /**
+     * @return refs of mocks which have to be started before application of given name.
+     */
+    public Set<String> getApplicationDependencies(String name) {
+        return ImmutableSet.copyOf(applicationDependencies.getOrDefault(name, Collections.emptySet()));
     }
 
     public TestContextProvider getTestContextProvider() {
         return testContextProvider;
     }
 
+    /**
+     * @return warmup of the application under test or null if it should not be warmed up.
+     */
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
     public MockProvidersConfiguration getMockProvidersConfiguration() {
         return mockProvidersConfiguration;
     }
@@ -75,6 +157,71 @@ public class RunnerConfiguration {
         return randomPortsProperty;
     }
 
+    /**
+     * @return number of threads used to start mocks. Mocks are started one by one when it is not greater than 1.
+     */
+    public int getMockStartupThreads() {
+        return mockStartupThreads;
+    }
+
+    /**
+     * @return directory to which startup report is written as json or null if it should not be written.
+     */
+    public String getStartupReportDirectory() {
+        return startupReportDirectory;
+    }
+
+    /**
+     * @return time given to each mock to stop when mocks are stopped in parallel or null if they are stopped one by
+     * one.
+     */
+    public Duration getMockShutdownTimeout() {
+        return mockShutdownTimeout;
+    }
+
+    /**
+     * @return whether mocks implementing {@link LazyMockProvider} are started on first use instead of on startup.
+     */
+    public boolean isLazyMockStartup() {
+        return lazyMockStartup;
+    }
+
+    /**
+     * @return whether mocks implementing {@link Snapshotable} are restored to their baseline before each test.
+     */
+    public boolean isRestoreMocksBeforeEachTest() {
+        return restoreMocksBeforeEachTest;
+    }
+
+    /**
+     * @return whether mocks are hosted by {@link EnvironmentDaemon} shared by all test JVMs instead of this JVM.
+     */
+    public boolean isSharedEnvironment() {
+        return sharedEnvironment;
+    }
+
+    /**
+     * @return whether mocks are hosted by {@link EnvironmentDaemon} which outlives test JVM, so next run of tests
+     * with unchanged configuration reuses them.
+     */
+    public boolean isKeepWarmEnvironment() {
+        return keepWarmEnvironment;
+    }
+
+    /**
+     * @return whether mocks implementing {@link LazyMockProvider} are started concurrently with the application.
+     */
+    public boolean isPipelinedStartup() {
+        return pipelinedStartup;
+    }
+
+    /**
+     * @return whether {@link ScopedProperties} of this configuration are copied to system properties as well.
+     */
+    public boolean isSystemPropertiesExport() {
+        return systemPropertiesExport;
+    }
+
     @FunctionalInterface
     interface MockProviderCreator {
 
@@ -84,15 +231,57 @@ public class RunnerConfiguration {
     public static class MockProvidersConfiguration {
 
         private final Map<String, MockProvider> providers;
+        private final Map<String, Set<String>> dependencies;
+        private final Map<String, MockCost> costs;
+        private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+        private final Map<String, MockConfig<?>> configs;
 
-        private MockProvidersConfiguration(Map<String, MockProvider> providers) {
+        private MockProvidersConfiguration(Map<String, MockProvider> providers, Map<String, Set<String>> dependencies,
+                Map<String, MockCost> costs, Map<String, MockConfig<?>> configs) {
             this.providers = providers;
+            this.dependencies = dependencies;
+            this.costs = costs;
+            this.configs = configs;
         }
 
         public Set<String> getRefs() {
             return ImmutableSet.copyOf(providers.keySet());
         }
 
+        /**
+         * @return refs of mocks which have to be started before mock identified by given ref.
+         */
+        public Set<String> getDependencies(String ref) {
+            return ImmutableSet.copyOf(dependencies.getOrDefault(ref, Collections.emptySet()));
+        }
+
+        /**
+         * @return whether any other mock has to be started after mock identified by given ref.
+         */
+        public boolean hasDependants(String ref) {
+            return dependencies.values().stream().anyMatch(required -> required.contains(ref));
+        }
+
+        /**
+         * @return resources declared by config of mock identified by given ref, see {@link MockConfig#getCost()}.
+         */
+        public MockCost getCost(String ref) {
+            return costs.getOrDefault(ref, MockCost.LIGHT);
+        }
+
+        /**
+         * @return fingerprint of config of mock identified by given ref, equal for mocks configured the same way.
+         * Computed on first request, only reinitialized configurations compare them.
+         */
+        public String getFingerprint(String ref) {
+            MockConfig<?> config = configs.get(ref);
+            return config == null ? null : fingerprints.computeIfAbsent(ref, key -> MockFingerprint.of(config));
+        }
+
+        MockConfig<?> getConfig(String ref) {
+            return configs.get(ref);
+        }
+
         public MockProvider get(String ref) {
             MockProvider mockProvider = providers.get(ref);
             Preconditions.checkNotNull(mockProvider, "Provider for " + ref + " does not exist.");
@@ -100,26 +289,75 @@ public class RunnerConfiguration {
             return mockProvider;
         }
 
+        /**
+         * Visits all providers one by one. Declared dependencies are always visited before mocks depending on them.
+         */
         public void forEach(MockProviderCreator creator) throws Exception {
-            for (Map.Entry<String, MockProvider> entry : providers.entrySet()) {
-                creator.consume(entry.getKey(), entry.getValue());
+            for (String ref : inStartupOrder()) {
+                creator.consume(ref, providers.get(ref));
+            }
+        }
+
+        private Set<String> inStartupOrder() {
+            Set<String> ordered = new LinkedHashSet<>();
+            providers.keySet().forEach(ref -> visit(ref, ordered, new LinkedHashSet<>()));
+            return ordered;
+        }
+
+        private void visit(String ref, Set<String> ordered, Set<String> path) {
+            if (ordered.contains(ref)) {
+                return;
             }
+            Preconditions.checkArgument(path.add(ref), "Mocks " + path + " depend on each other in a cycle.");
+            getDependencies(ref).forEach(dependency -> visit(dependency, ordered, path));
+            path.remove(ref);
+            ordered.add(ref);
         }
     }
 
     public static class Builder {
 
-        private ApplicationProvider applicationProvider;
+        private final Map<String, ApplicationProvider> applicationProviders = new LinkedHashMap<>();
+        private final Map<String, Set<String>> applicationDependencies = new HashMap<>();
         private TestContextProvider testContextProvider;
+        private Warmup warmup;
         private MockProvidersConfiguration mockProvidersConfiguration;
         private Properties systemProperties = new Properties();
         private Set<String> randomPortsProperty = new HashSet<>();
+        private int mockStartupThreads = 1;
+        private String startupReportDirectory;
+        private Duration mockShutdownTimeout;
+        private boolean lazyMockStartup = Boolean.getBoolean("canaveral.mocks.lazy");
+        private boolean restoreMocksBeforeEachTest;
+        private boolean sharedEnvironment = Boolean.getBoolean("canaveral.environment.shared");
+        private boolean keepWarmEnvironment = Boolean.getBoolean("canaveral.environment.keepWarm");
+        private boolean pipelinedStartup;
+        private boolean systemPropertiesExport = Boolean.getBoolean("canaveral.properties.export");
 
         private Builder() {
         }
 
         public Builder withApplicationProvider(ApplicationProvider applicationProvider) {
-            this.applicationProvider = applicationProvider;
+            if (applicationProvider == null) {
+                applicationProviders.remove(DEFAULT_APPLICATION);
+            } else {
+                applicationProviders.put(DEFAULT_APPLICATION, applicationProvider);
+            }
+            return this;
+        }
+
+        /**
+         * Adds application started along with the application under test, ex. sibling service it talks to. All
+         * applications are started concurrently, each one as soon as mocks identified by {@code requiredMockRefs}
+         * are started, and runner proceeds once all of them can proceed. They are cleaned concurrently as well.
+         */
+        public Builder withApplicationProvider(String name, ApplicationProvider applicationProvider,
+                String... requiredMockRefs) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "Application name cannot be empty.");
+            Preconditions.checkNotNull(applicationProvider, "Application provider cannot be null.");
+            Preconditions.checkArgument(!applicationProviders.containsKey(name), name + " was already defined.");
+            applicationProviders.put(name, applicationProvider);
+            applicationDependencies.put(name, ImmutableSet.copyOf(requiredMockRefs));
             return this;
         }
 
@@ -128,6 +366,15 @@ public class RunnerConfiguration {
             return this;
         }
 
+        /**
+         * Warms up the application under test once all applications and test context can proceed. Its duration and
+         * latency curve are included in {@link StartupReport}.
+         */
+        public Builder withWarmup(Warmup warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
         public Builder withMocks(MockBuilder mockBuilder) {
             mockProvidersConfiguration = mockBuilder.build();
             return this;
@@ -143,18 +390,135 @@ public class RunnerConfiguration {
             return this;
         }
 
+        /**
+         * Starts mocks concurrently on at most {@code threads} threads. Mocks which depend on other mocks (see
+         * {@link MockBuilder#dependsOn(String, String...)}) are started once all their dependencies are ready.
+         */
+        public Builder withParallelMockStartup(int threads) {
+            Preconditions.checkArgument(threads > 0, "Number of mock startup threads must be positive.");
+            this.mockStartupThreads = threads;
+            return this;
+        }
+
+        /**
+         * Writes {@link StartupReport} as json into given directory, ex. "target", after startup and after shutdown.
+         */
+        public Builder writeStartupReportTo(String directory) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(directory), "Report directory cannot be empty.");
+            this.startupReportDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Stops all mocks concurrently on shutdown and reinitialization. Mocks which do not stop within
+         * {@code timeoutPerMock} are abandoned and reported.
+         */
+        public Builder withParallelMockShutdown(Duration timeoutPerMock) {
+            Preconditions.checkArgument(timeoutPerMock != null && !timeoutPerMock.isNegative() &&
+                    !timeoutPerMock.isZero(), "Mock shutdown timeout must be positive.");
+            this.mockShutdownTimeout = timeoutPerMock;
+            return this;
+        }
+
+        /**
+         * Only publishes ports and endpoints of mocks implementing {@link LazyMockProvider} on startup. Each such mock
+         * is started on first connection to its port or first injection, whichever comes first. Can also be enabled
+         * with {@code -Dcanaveral.mocks.lazy=true}.
+         */
+        public Builder withLazyMockStartup() {
+            this.lazyMockStartup = true;
+            return this;
+        }
+
+        /**
+         * Restores mocks implementing {@link Snapshotable} to state captured after all mocks were created whenever
+         * test instance is initialized.
+         */
+        public Builder restoreMocksBeforeEachTest() {
+            this.restoreMocksBeforeEachTest = true;
+            return this;
+        }
+
+        /**
+         * Hosts mocks in a separate process shared by all test JVMs using this configuration, ex. surefire forks.
+         * The first JVM launches it, the others only read endpoints and ports it publishes, along with host names
+         * mocks routed in {@link pl.codewise.canaveral.core.runtime.dns.NameStore}. Application and test context are
+         * still started in each JVM. Daemon is shared only by JVMs of the same build, that is with the same
+         * configuration, class path and working directory.
+         * <p>
+         * Meant for endpoint-only configurations, where mocks are configured entirely up front. Mocks stay in the
+         * daemon, so injecting them into tests fails and their rules cannot be changed by tests. It cannot be
+         * combined with {@link #restoreMocksBeforeEachTest()}. Can also be enabled with
+         * {@code -Dcanaveral.environment.shared=true}.
+         */
+        public Builder withSharedEnvironment() {
+            this.sharedEnvironment = true;
+            return this;
+        }
+
+        /**
+         * Same as {@link #withSharedEnvironment()}, but the daemon hosting mocks survives test JVM for 30 minutes.
+         * Next run with the same configuration attaches to it and restores mocks implementing
+         * {@link Snapshotable} to their defaults instead of starting them again. Any change of configured mocks,
+         * system properties or the configuration provider class starts new daemon. Meant for the local edit-run
+         * loop, can also be enabled with {@code -Dcanaveral.environment.keepWarm=true}.
+         */
+        public Builder withKeepWarmEnvironment() {
+            this.keepWarmEnvironment = true;
+            return this;
+        }
+
+        /**
+         * Publishes ports and endpoints of mocks implementing {@link LazyMockProvider} first and starts their servers
+         * concurrently with the application. Runner waits for both before checking whether application can proceed.
+         * Mocks which other mocks depend on are always started before the application. Servers are started on as many
+         * threads as set by {@link #withParallelMockStartup(int)}.
+         */
+        public Builder withPipelinedStartup() {
+            this.pipelinedStartup = true;
+            return this;
+        }
+
+        /**
+         * Copies configured properties, random ports and endpoints published by mocks to system properties, for
+         * applications which cannot read {@link ScopedProperties}. Exported properties are shared by the whole JVM,
+         * so configurations using it should not be run concurrently. Can also be enabled with
+         * {@code -Dcanaveral.properties.export=true}.
+         */
+        public Builder withSystemPropertiesExport() {
+            this.systemPropertiesExport = true;
+            return this;
+        }
+
         public RunnerConfiguration build() {
-            return new RunnerConfiguration(applicationProvider, testContextProvider, mockProvidersConfiguration,
-                    systemProperties, randomPortsProperty);
+            Preconditions.checkArgument(warmup == null || applicationProviders.containsKey(DEFAULT_APPLICATION),
+                    "Warmup requires application under test.");
+            Preconditions.checkArgument(!restoreMocksBeforeEachTest || !sharedEnvironment && !keepWarmEnvironment,
+                    "Mocks hosted by shared environment cannot be restored before each test.");
+            applicationDependencies.forEach((name, required) -> required.forEach(ref -> Preconditions.checkArgument(
+                    mockProvidersConfiguration != null && mockProvidersConfiguration.getRefs().contains(ref),
+                    name + " requires mock " + ref + " which was not defined.")));
+
+            return new RunnerConfiguration(new LinkedHashMap<>(applicationProviders),
+                    new HashMap<>(applicationDependencies), testContextProvider, warmup, mockProvidersConfiguration,
+                    systemProperties, randomPortsProperty, mockStartupThreads, startupReportDirectory,
+                    mockShutdownTimeout, lazyMockStartup, restoreMocksBeforeEachTest, sharedEnvironment,
+                    keepWarmEnvironment, pipelinedStartup, systemPropertiesExport);
         }
     }
 
     public static class MockBuilder {
 
         private final Map<String, MockProvider> providers;
+        private final Map<String, Set<String>> dependencies;
+        private final Map<String, MockCost> costs;
+        private final Map<String, MockConfig<?>> configs;
 
         private MockBuilder() {
             this.providers = new HashMap<>();
+            this.dependencies = new LinkedHashMap<>();
+            this.costs = new HashMap<>();
+            this.configs = new HashMap<>();
         }
 
         public MockBuilder provideMock(MockConfig<? extends MockProvider> config) {
@@ -167,12 +531,38 @@ public class RunnerConfiguration {
         public MockBuilder provideMock(String mockRef, MockConfig<? extends MockProvider> config) {
             Preconditions.checkArgument(!providers.containsKey(mockRef), mockRef + " was already defined.");
             providers.put(mockRef, config.build(mockRef));
+            costs.put(mockRef, config.getCost());
+            configs.put(mockRef, config);
+
+            return this;
+        }
+
+        /**
+         * Declares that mock identified by {@code mockRef} can be started only after all {@code requiredMockRefs}
+         * are started.
+         */
+        public MockBuilder dependsOn(String mockRef, String... requiredMockRefs) {
+            Set<String> required = dependencies.computeIfAbsent(mockRef, ref -> new HashSet<>());
+            for (String requiredMockRef : requiredMockRefs) {
+                Preconditions.checkArgument(!mockRef.equals(requiredMockRef), mockRef + " cannot depend on itself.");
+                required.add(requiredMockRef);
+            }
 
             return this;
         }
 
         public MockProvidersConfiguration build() {
-            return new MockProvidersConfiguration(providers);
+            dependencies.forEach((ref, required) -> {
+                Preconditions.checkArgument(providers.containsKey(ref), ref + " has dependencies but was not defined.");
+                required.forEach(requiredRef -> Preconditions.checkArgument(providers.containsKey(requiredRef),
+                        ref + " depends on " + requiredRef + " which was not defined."));
+            });
+
+            MockProvidersConfiguration configuration =
+                    new MockProvidersConfiguration(providers, dependencies, costs, configs);
+            // fail fast on cyclic dependencies instead of hanging on startup
+            configuration.inStartupOrder();
+            return configuration;
         }
     }
 }
@@ -2,8 +2,14 @@ package pl.codewise.canaveral.core.runtime;
 
 import pl.codewise.canaveral.core.ApplicationProvider;
 import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.Snapshotable;
+import pl.codewise.canaveral.core.runtime.dns.NameResolutionMetrics;
+import pl.codewise.canaveral.core.runtime.dns.NameStore;
 
 import java.lang.annotation.Annotation;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -19,6 +25,19 @@ public interface RunnerContext {
 
     ApplicationProvider getApplicationProvider();
 
+    /**
+     * @return application of given name, see
+     * {@link RunnerConfiguration.Builder#withApplicationProvider(String, ApplicationProvider, String...)}.
+     *
+     * @throws IllegalArgumentException if there is no application of given name.
+     */
+    ApplicationProvider getApplicationProvider(String name);
+
+    /**
+     * @return all applications by their names, including the application under test.
+     */
+    Map<String, ApplicationProvider> getApplicationProviders();
+
     boolean hasTestConfigurationProvider();
 
     /**
@@ -31,6 +50,13 @@ public interface RunnerContext {
      */
     Object getApplicationBean(Class<?> beanType, Set<Annotation> knownAnnotations);
 
+    /**
+     * Same as {@link #getApplicationBean(Class, Set)}, but looks up bean of application of given name.
+     *
+     * @throws IllegalArgumentException if there is no such application or it cannot find bean by its class.
+     */
+    Object getApplicationBean(String applicationName, Class<?> beanType, Set<Annotation> knownAnnotations);
+
     /**
      * It is sometimes necessary to access bean from application and share it with test. ex object mapper.
      * Please use it wisely so your test stay decoupled from application logic.
@@ -51,9 +77,9 @@ public interface RunnerContext {
     Object getMock(String ref);
 
     /**
-     * @param mockType of the mock.
+     * @param mockType of the mock, its superclass or any of its interfaces.
      *
-     * @return mock provider
+     * @return mock provider. The one registered first if more mocks are of given type.
      *
      * @throws IllegalArgumentException if cannot find mock by provided class.
      */
@@ -61,9 +87,71 @@ public interface RunnerContext {
 
     Stream<MockProvider> getMocks();
 
+    /**
+     * @return free port. It stays reserved by the runner until this call, so bind it as soon as possible.
+     */
     default int getFreePort() {
-        return FreePorts.findFreePort();
+        return PortAllocator.instance().nextPort();
+    }
+
+    /**
+     * Preferred over {@link #getFreePort()} by mocks which can accept already bound socket, as there is no window in
+     * which other process can take the port.
+     *
+     * @return server socket channel bound to a free port of loopback address. Caller is responsible for closing it.
+     */
+    default ServerSocketChannel getBoundServerSocketChannel() {
+        return PortAllocator.instance().nextServerSocketChannel();
+    }
+
+    /**
+     * @return lookups of host names answered by canaveral name service, shared by the whole JVM.
+     */
+    default NameResolutionMetrics getNameResolutionMetrics() {
+        return NameStore.getInstance().getResolutionMetrics();
     }
 
+    /**
+     * @return timings of runner lifecycle phases recorded so far.
+     */
+    StartupReport getStartupReport();
+
+    /**
+     * Mocks publish their endpoints and ports here instead of system properties, so configurations hosted by the same
+     * JVM do not see each other's values.
+     *
+     * @return properties of this configuration.
+     */
+    ScopedProperties getProperties();
+
+    /**
+     * Captures state of all started mocks implementing {@link Snapshotable}. Runner does it once after all mocks are
+     * created, so the captured state is the baseline of every test.
+     */
+    void snapshotAll();
+
+    /**
+     * Returns all started mocks implementing {@link Snapshotable} to their last captured state, all at once.
+     */
+    void restoreAll();
+
+    /**
+     * Notifies conditions awaited by {@link AwaitedProgress} that something changed, so they are checked right away
+     * instead of on their next poll. Mocks call it ex. when they receive a request.
+     */
+    void signalProgress();
+
+    /**
+     * @return whether runner is warming up the application, see {@link Warmup}. Mocks do not record requests
+     * received meanwhile, so tests see only their own traffic.
+     */
+    boolean isWarmingUp();
+
+    /**
+     * @return clock mocks read time from and schedule their timers on. Tests move it forward with
+     * {@link VirtualClock#advance(Duration)} instead of sleeping.
+     */
+    VirtualClock getClock();
+
     void register(LifeCycleListener listener);
 }
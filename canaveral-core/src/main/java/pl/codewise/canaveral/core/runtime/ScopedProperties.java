@@ -0,0 +1,131 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Properties of a single runner configuration - configured ones, random ports and endpoints published by mocks.
+ * Unlike system properties they are not visible to other configurations hosted by the same JVM. Applications read
+ * them through an adapter, ex. a property source of Spring environment. Copying them to system properties is possible
+ * with {@link RunnerConfiguration.Builder#withSystemPropertiesExport()} for applications which cannot use one.
+ */
+public class ScopedProperties {
+
+    private static final Logger log = LoggerFactory.getLogger(ScopedProperties.class);
+
+    private final Map<String, String> properties = new ConcurrentHashMap<>();
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentOwner = new ThreadLocal<>();
+    private final boolean exportToSystem;
+
+    public ScopedProperties() {
+        this(false);
+    }
+
+    ScopedProperties(boolean exportToSystem) {
+        this.exportToSystem = exportToSystem;
+    }
+
+    public void set(String name, String value) {
+        if (isNullOrEmpty(name)) {
+            log.debug("Empty property name was skipped.");
+            return;
+        }
+        Preconditions.checkNotNull(value, "Value of property " + name + " cannot be null.");
+
+        String owner = currentOwner.get();
+        if (owner != null) {
+            owners.put(name, owner);
+        } else {
+            owners.remove(name);
+        }
+        String previous = properties.put(name, value);
+        if (previous != null) {
+            log.info("Property '{}' previous value '{}' was overridden by '{}'.", name, previous, value);
+        }
+        log.info("Setting property '{}' to '{}'.", name, value);
+        if (exportToSystem) {
+            System.setProperty(name, value);
+        }
+    }
+
+    public void set(Collection<String> names, String value) {
+        Preconditions.checkNotNull(names, "Property names cannot be null");
+
+        names.forEach(name -> set(name, value));
+    }
+
+    public void setAll(Properties values) {
+        values.forEach((name, value) -> set((String) name, (String) value));
+    }
+
+    /**
+     * @return value of the property or null when it was not set.
+     */
+    public String get(String name) {
+        return properties.get(name);
+    }
+
+    public boolean contains(String name) {
+        return properties.containsKey(name);
+    }
+
+    public Map<String, String> asMap() {
+        return ImmutableMap.copyOf(properties);
+    }
+
+    public Properties toProperties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    /**
+     * Attributes properties set by the current thread to given owner, ex. mock being started, until the returned
+     * attribution is closed.
+     */
+    Attribution attributeTo(String owner) {
+        currentOwner.set(owner);
+        return currentOwner::remove;
+    }
+
+    /**
+     * @return properties last set while attributed to given owner.
+     */
+    Map<String, String> getOwnedBy(String owner) {
+        ImmutableMap.Builder<String, String> owned = ImmutableMap.builder();
+        owners.forEach((name, propertyOwner) -> {
+            String value = properties.get(name);
+            if (propertyOwner.equals(owner) && value != null) {
+                owned.put(name, value);
+            }
+        });
+        return owned.build();
+    }
+
+    /**
+     * Removes all properties, including the ones exported to system properties.
+     */
+    void clear() {
+        if (exportToSystem) {
+            properties.keySet().forEach(System::clearProperty);
+        }
+        properties.clear();
+        owners.clear();
+    }
+
+    interface Attribution extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,209 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection of a test JVM to {@link EnvironmentDaemon} hosting mocks of given configuration. The first JVM which
+ * attaches launches the daemon, the others connect to the one already running. Daemon keeps mocks running as long
+ * as any JVM stays attached, and a while longer - long enough for the next IDE run in case of warm environment.
+ * Test JVM receives only properties and routes published by the mocks, the mocks themselves stay in the daemon.
+ */
+class SharedEnvironment implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedEnvironment.class);
+
+    private static final long STARTUP_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long POLL_MILLIS = 100;
+    private static final long SHARED_IDLE_SECONDS = 30;
+    private static final long KEEP_WARM_IDLE_SECONDS = TimeUnit.MINUTES.toSeconds(30);
+
+    private final Socket connection;
+    private final Properties publishedProperties;
+    private final Properties publishedRoutes;
+
+    private SharedEnvironment(Socket connection) throws IOException {
+        this.connection = connection;
+        this.publishedProperties = readProperties(connection);
+        this.publishedRoutes = readProperties(connection);
+    }
+
+    static SharedEnvironment attach(Class<? extends RunnerConfigurationProvider> providerClass,
+            RunnerConfiguration configuration) throws IOException {
+        return attach(providerClass, configuration,
+                configuration.isKeepWarmEnvironment() ? KEEP_WARM_IDLE_SECONDS : SHARED_IDLE_SECONDS);
+    }
+
+    @VisibleForTesting
+    static SharedEnvironment attach(Class<? extends RunnerConfigurationProvider> providerClass,
+            RunnerConfiguration configuration, long idleSeconds) throws IOException {
+        boolean keepWarm = configuration.isKeepWarmEnvironment();
+        String key = keyOf(providerClass, configuration);
+
+        Path lockFile = fileOf(key, "lock");
+        try (FileChannel lockChannel = FileChannel.open(lockFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            Path portFile = fileOf(key, "port");
+            Socket connection = tryConnect(portFile);
+            if (connection != null) {
+                try {
+                    return new SharedEnvironment(connection);
+                } catch (IOException e) {
+                    log.debug("Environment daemon is shutting down, launching new one.", e);
+                    connection.close();
+                }
+            }
+            connection = launchDaemon(providerClass, key, idleSeconds, keepWarm);
+            try {
+                return new SharedEnvironment(connection);
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return properties published by mocks hosted by the daemon, ex. their endpoints and ports.
+     */
+    Properties getPublishedProperties() {
+        return publishedProperties;
+    }
+
+    /**
+     * @return IP addresses of host names routed by mocks hosted by the daemon, see
+     * {@link pl.codewise.canaveral.core.runtime.dns.NameStore#getRoutes()}.
+     */
+    Properties getPublishedRoutes() {
+        return publishedRoutes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        connection.close();
+    }
+
+    /**
+     * Identifies daemon of given configuration. Lock, port and log files of daemons live in the temporary directory
+     * shared by all builds running on the machine, so the key includes the fingerprint of the configuration.
+     */
+    static String keyOf(Class<? extends RunnerConfigurationProvider> providerClass,
+            RunnerConfiguration configuration) {
+        return providerClass.getName() + "-" + fingerprint(providerClass, configuration);
+    }
+
+    /**
+     * Changes whenever configured mocks, contents of their configs, system properties, the compiled configuration
+     * provider, class path or working directory change, so an environment is never shared by different builds nor
+     * reused with outdated configuration.
+     */
+    static String fingerprint(Class<? extends RunnerConfigurationProvider> providerClass,
+            RunnerConfiguration configuration) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(providerClass.getName(), StandardCharsets.UTF_8);
+        RunnerConfiguration.MockProvidersConfiguration mocks = configuration.getMockProvidersConfiguration();
+        if (mocks != null) {
+            new TreeSet<>(mocks.getRefs()).forEach(ref -> hasher
+                    .putString(ref, StandardCharsets.UTF_8)
+                    .putString(mocks.get(ref).getClass().getName(), StandardCharsets.UTF_8)
+                    .putString(MockFingerprint.acrossJvms(mocks.getConfig(ref)), StandardCharsets.UTF_8)
+                    .putString(mocks.getDependencies(ref).toString(), StandardCharsets.UTF_8));
+        }
+        new TreeMap<>(configuration.getSystemProperties()).forEach((key, value) -> hasher
+                .putString(key + "=" + value, StandardCharsets.UTF_8));
+        hasher.putLong(MockFingerprint.lastModified(providerClass))
+                .putString(System.getProperty("java.class.path", ""), StandardCharsets.UTF_8)
+                .putString(System.getProperty("user.dir", ""), StandardCharsets.UTF_8);
+        return hasher.hash().toString().substring(0, 16);
+    }
+
+    static Path fileOf(String key, String extension) {
+        return Paths.get(System.getProperty("java.io.tmpdir"), "canaveral-env-" + key + "." + extension);
+    }
+
+    private static Socket launchDaemon(Class<? extends RunnerConfigurationProvider> providerClass, String key,
+            long idleSeconds, boolean restoreOnAttach) throws IOException {
+        Path portFile = fileOf(key, "port");
+        Files.deleteIfExists(portFile);
+        File logFile = fileOf(key, "log").toFile();
+        Process daemon = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                EnvironmentDaemon.class.getName(),
+                providerClass.getName(),
+                portFile.toString(),
+                Long.toString(idleSeconds),
+                Boolean.toString(restoreOnAttach))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile))
+                .start();
+        log.info("Launched environment daemon for {}, its output goes to {}.", providerClass.getName(), logFile);
+
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!daemon.isAlive()) {
+                throw new IllegalStateException("Environment daemon exited with " + daemon.exitValue() +
+                        ", see " + logFile);
+            }
+            Socket connection = tryConnect(portFile);
+            if (connection != null) {
+                return connection;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        daemon.destroy();
+        throw new IllegalStateException("Environment daemon did not start within " + STARTUP_TIMEOUT_MILLIS +
+                " ms, see " + logFile);
+    }
+
+    private static Socket tryConnect(Path portFile) {
+        if (!Files.exists(portFile)) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(new String(Files.readAllBytes(portFile), StandardCharsets.UTF_8).trim());
+            return new Socket(InetAddress.getLoopbackAddress(), port);
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Environment daemon published in {} is not available.", portFile, e);
+            return null;
+        }
+    }
+
+    private static Properties readProperties(Socket connection) throws IOException {
+        DataInputStream in = new DataInputStream(connection.getInputStream());
+        byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(content));
+        return properties;
+    }
+}
@@ -0,0 +1,256 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings of all phases of runner lifecycle - setting properties, starting each mock, calling listeners, starting
+ * application and test context and stopping everything on shutdown. Phases may overlap, ex. when mocks are started
+ * in parallel. Listeners called before and after each test are not phases, their calls are summed up in
+ * {@link #getListenerTimings()} instead. Latency of each warmup iteration is in {@link #getWarmupCurve()}. Each
+ * phase is also recorded as Java Flight Recorder event, see {@link CanaveralEvents#runnerPhase(String, String)}.
+ */
+public class StartupReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String providerName;
+    private final long createdAtNanos;
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+    private final Set<String> overranPhases = ConcurrentHashMap.newKeySet();
+    private final Map<String, ListenerTiming> listenerTimings = new ConcurrentHashMap<>();
+    private volatile List<Duration> warmupCurve = ImmutableList.of();
+
+    StartupReport(String providerName) {
+        this.providerName = providerName;
+        this.createdAtNanos = System.nanoTime();
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public List<Phase> getPhases() {
+        return ImmutableList.copyOf(phases);
+    }
+
+    public Optional<Phase> getPhase(String name) {
+        return phases.stream()
+                .filter(phase -> phase.getName().equals(name))
+                .findFirst();
+    }
+
+    /**
+     * @return names of phases which were abandoned because they did not finish within given time limit.
+     */
+    public Set<String> getOverranPhases() {
+        return ImmutableSet.copyOf(overranPhases);
+    }
+
+    /**
+     * @return time spent by each listener on each event, keyed by {@code <event>.<listener>}.
+     */
+    public Map<String, ListenerTiming> getListenerTimings() {
+        return ImmutableMap.copyOf(new TreeMap<>(listenerTimings));
+    }
+
+    /**
+     * @return latency of each warmup iteration or empty list if application was not warmed up, see
+     * {@link RunnerConfiguration.Builder#withWarmup(Warmup)}.
+     */
+    public List<Duration> getWarmupCurve() {
+        return warmupCurve;
+    }
+
+    void recordWarmup(List<Duration> curve) {
+        this.warmupCurve = ImmutableList.copyOf(curve);
+    }
+
+    void recordListener(String name, long durationNanos) {
+        listenerTimings.computeIfAbsent(name, ListenerTiming::new).add(durationNanos);
+    }
+
+    Measurement measure(String phaseName) {
+        return new Measurement(phaseName, System.nanoTime());
+    }
+
+    void markOverran(String phaseName, long startedAtNanos, Duration limit) {
+        if (overranPhases.add(phaseName)) {
+            phases.add(new Phase(phaseName, Duration.ofNanos(startedAtNanos - createdAtNanos), limit, true));
+        }
+    }
+
+    String toJson() {
+        ObjectNode json = MAPPER.createObjectNode().put("provider", providerName);
+        ArrayNode phasesJson = json.putArray("phases");
+        for (Phase phase : getPhases()) {
+            ObjectNode phaseJson = phasesJson.addObject()
+                    .put("name", phase.getName())
+                    .put("startOffsetMillis", phase.getStartOffset().toMillis())
+                    .put("durationMillis", phase.getDuration().toMillis());
+            if (phase.isOverran()) {
+                phaseJson.put("overran", true);
+            }
+        }
+        ArrayNode listenersJson = json.putArray("listeners");
+        for (ListenerTiming timing : getListenerTimings().values()) {
+            listenersJson.addObject()
+                    .put("name", timing.getName())
+                    .put("calls", timing.getCalls())
+                    .put("totalMillis", timing.getTotal().toMillis())
+                    .put("maxMillis", timing.getMax().toMillis());
+        }
+        ArrayNode warmupJson = json.putArray("warmupMillis");
+        warmupCurve.forEach(latency -> warmupJson.add(latency.toNanos() / 1_000_000.0));
+        try {
+            return MAPPER.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize startup report of " + providerName, e);
+        }
+    }
+
+    void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("canaveral-startup-" + providerName + ".json");
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("providerName", providerName)
+                .add("phases", phases)
+                .add("warmupIterations", warmupCurve.size())
+                .toString();
+    }
+
+    public static class Phase {
+
+        private final String name;
+        private final Duration startOffset;
+        private final Duration duration;
+        private final boolean overran;
+
+        private Phase(String name, Duration startOffset, Duration duration, boolean overran) {
+            this.name = name;
+            this.startOffset = startOffset;
+            this.duration = duration;
+            this.overran = overran;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return time elapsed since runner started initialization when this phase began.
+         */
+        public Duration getStartOffset() {
+            return startOffset;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return whether phase was abandoned after {@link #getDuration()} instead of being finished.
+         */
+        public boolean isOverran() {
+            return overran;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + duration.toMillis() + "ms" + (overran ? " (overran)" : "");
+        }
+    }
+
+    public static class ListenerTiming {
+
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private ListenerTiming(String name) {
+            this.name = name;
+        }
+
+        private void add(long durationNanos) {
+            calls.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public Duration getTotal() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+
+        public Duration getMax() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + getCalls() + "x " + getTotal().toMillis() + "ms";
+        }
+    }
+
+    class Measurement implements AutoCloseable {
+
+        private final String phaseName;
+        private final long startedAtNanos;
+        private final CanaveralEvents.Phase event;
+
+        private Measurement(String phaseName, long startedAtNanos) {
+            this.phaseName = phaseName;
+            this.startedAtNanos = startedAtNanos;
+            this.event = CanaveralEvents.runnerPhase(providerName, phaseName);
+        }
+
+        @Override
+        public void close() {
+            event.close();
+            if (overranPhases.contains(phaseName)) {
+                return;
+            }
+            long finishedAtNanos = System.nanoTime();
+            phases.add(new Phase(phaseName,
+                    Duration.ofNanos(startedAtNanos - createdAtNanos),
+                    Duration.ofNanos(finishedAtNanos - startedAtNanos),
+                    false));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock shared by all mocks of a configuration, see {@link RunnerContext#getClock()}. It follows wall-clock time
+ * shifted by everything passed to {@link #advance(Duration)}, so tests of TTLs or lease expiry move time forward
+ * instead of sleeping. Timers scheduled by mocks are fired only by {@link #advance(Duration)}, synchronously and in
+ * order of their due time, so everything due is done once it returns.
+ */
+public class VirtualClock extends Clock {
+
+    private final Clock base;
+    private final AtomicLong sequence = new AtomicLong();
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>(Comparator
+            .comparing((Timer timer) -> timer.dueAt)
+            .thenComparingLong(timer -> timer.sequence));
+
+    private volatile Duration offset = Duration.ZERO;
+
+    public VirtualClock() {
+        this(Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    VirtualClock(Clock base) {
+        this.base = base;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return base.getZone();
+    }
+
+    /**
+     * @return clock in given zone, which still shares time and timers with this one.
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        VirtualClock owner = this;
+        return zone.equals(getZone()) ? this : new Clock() {
+
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId otherZone) {
+                return owner.withZone(otherZone);
+            }
+
+            @Override
+            public Instant instant() {
+                return owner.instant();
+            }
+        };
+    }
+
+    @Override
+    public Instant instant() {
+        return base.instant().plus(offset);
+    }
+
+    /**
+     * @return total time this clock was advanced by.
+     */
+    public Duration getOffset() {
+        return offset;
+    }
+
+    public Timer schedule(Duration delay, Runnable action) {
+        return scheduleAt(instant().plus(delay), action);
+    }
+
+    public synchronized Timer scheduleAt(Instant dueAt, Runnable action) {
+        Timer timer = new Timer(dueAt, sequence.incrementAndGet(), action);
+        timers.add(timer);
+        return timer;
+    }
+
+    /**
+     * Moves time forward and fires all timers which became due, including ones scheduled meanwhile by fired timers.
+     * Clock shows due time of each timer while it is fired. Exception thrown by a timer is propagated once all due
+     * timers were fired.
+     */
+    public void advance(Duration duration) {
+        Preconditions.checkArgument(!duration.isNegative(), "Clock cannot go back.");
+        Duration target;
+        synchronized (this) {
+            target = offset.plus(duration);
+        }
+        RuntimeException failure = null;
+        for (Timer timer = nextDue(target); timer != null; timer = nextDue(target)) {
+            try {
+                timer.action.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        synchronized (this) {
+            offset = target.compareTo(offset) > 0 ? target : offset;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized Timer nextDue(Duration targetOffset) {
+        Timer next = timers.peek();
+        Instant now = base.instant();
+        if (next == null || next.dueAt.isAfter(now.plus(targetOffset))) {
+            return null;
+        }
+        Duration dueOffset = Duration.between(now, next.dueAt);
+        offset = dueOffset.compareTo(offset) > 0 ? dueOffset : offset;
+        return timers.poll();
+    }
+
+    private synchronized void cancel(Timer timer) {
+        timers.remove(timer);
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualClock[offset=" + offset + "]";
+    }
+
+    public class Timer {
+
+        private final Instant dueAt;
+        private final long sequence;
+        private final Runnable action;
+
+        private Timer(Instant dueAt, long sequence, Runnable action) {
+            this.dueAt = dueAt;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        public Instant getDueAt() {
+            return dueAt;
+        }
+
+        /**
+         * Does nothing if timer was already fired.
+         */
+        public void cancel() {
+            VirtualClock.this.cancel(this);
+        }
+    }
+}
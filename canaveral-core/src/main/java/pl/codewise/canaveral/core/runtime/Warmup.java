@@ -0,0 +1,201 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Steps replayed against the application under test after it can proceed and before the first test, so tests do not
+ * measure latency of cold JIT and cold connection pools. Each iteration runs all steps once. Requests received by mocks
+ * during warmup are not recorded, see {@link RunnerContext#isWarmingUp()}.
+ */
+public class Warmup {
+
+    private static final int STABILITY_WINDOW = 5;
+
+    private final List<Step> steps;
+    private final int maxIterations;
+    private final double tolerance;
+
+    private Warmup(List<Step> steps, int maxIterations, double tolerance) {
+        this.steps = steps;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * @return latency of each iteration, which is the warmup latency curve.
+     */
+    List<Duration> run(RunnerContext context) throws Exception {
+        List<Duration> curve = new ArrayList<>();
+        while (curve.size() < maxIterations && !isStable(curve)) {
+            long startedAtNanos = System.nanoTime();
+            for (Step step : steps) {
+                step.call(context);
+            }
+            curve.add(Duration.ofNanos(System.nanoTime() - startedAtNanos));
+        }
+        return curve;
+    }
+
+    /**
+     * @return whether median latency of last iterations differs from median of iterations right before them by no more
+     * than the tolerance.
+     */
+    @VisibleForTesting
+    boolean isStable(List<Duration> curve) {
+        if (Double.isNaN(tolerance) || curve.size() < 2 * STABILITY_WINDOW) {
+            return false;
+        }
+        long previous = median(curve.subList(curve.size() - 2 * STABILITY_WINDOW, curve.size() - STABILITY_WINDOW));
+        long recent = median(curve.subList(curve.size() - STABILITY_WINDOW, curve.size()));
+        return Math.abs(recent - previous) <= tolerance * previous;
+    }
+
+    private static long median(List<Duration> window) {
+        return window.stream()
+                .mapToLong(Duration::toNanos)
+                .sorted()
+                .skip(window.size() / 2)
+                .findFirst()
+                .orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("steps", steps)
+                .add("maxIterations", maxIterations)
+                .add("tolerance", tolerance)
+                .toString();
+    }
+
+    @FunctionalInterface
+    public interface Step {
+
+        void call(RunnerContext context) throws Exception;
+    }
+
+    private static class HttpStep implements Step {
+
+        private final String method;
+        private final String path;
+        private final String jsonBody;
+
+        private HttpStep(String method, String path, String jsonBody) {
+            this.method = method;
+            this.path = path;
+            this.jsonBody = jsonBody;
+        }
+
+        @Override
+        public void call(RunnerContext context) throws IOException {
+            URL url = new URL(context.getApplicationProvider().getEndpoint() + path);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(method);
+            if (jsonBody != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream body = connection.getOutputStream()) {
+                    body.write(jsonBody.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            // response is read fully, so the connection is kept alive; its status does not matter
+            InputStream response = connection.getResponseCode() < 400 ? connection.getInputStream() :
+                    connection.getErrorStream();
+            if (response != null) {
+                try (InputStream ignored = response) {
+                    ByteStreams.exhaust(response);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<Step> steps = new ArrayList<>();
+        private int maxIterations = 200;
+        private double tolerance = 0.05;
+
+        private Builder() {
+        }
+
+        /**
+         * Sends request to {@link pl.codewise.canaveral.core.ApplicationProvider#getEndpoint()} of the application
+         * under test. Response is read and ignored, whatever its status.
+         */
+        public Builder request(String method, String path) {
+            return request(method, path, null);
+        }
+
+        public Builder request(String method, String path, String jsonBody) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(method), "Method cannot be empty.");
+            Preconditions.checkArgument(path != null && path.startsWith("/"), "Path has to start with /.");
+            steps.add(new HttpStep(method, path, jsonBody));
+            return this;
+        }
+
+        /**
+         * Calls given step, ex. client of the application, once in each iteration. Exception thrown by it fails the
+         * runner initialization.
+         */
+        public Builder call(Step step) {
+            steps.add(Preconditions.checkNotNull(step, "Step cannot be null."));
+            return this;
+        }
+
+        /**
+         * Runs exactly {@code iterations} iterations.
+         */
+        public Builder times(int iterations) {
+            Preconditions.checkArgument(iterations > 0, "Number of iterations must be positive.");
+            this.maxIterations = iterations;
+            this.tolerance = Double.NaN;
+            return this;
+        }
+
+        /**
+         * Runs iterations until median latency of the last 5 iterations differs by no more than {@code tolerance},
+         * ex. 0.05 for 5%, from median of 5 iterations before them, but no more than {@code maxIterations}. This is
+         * the default with 5% tolerance and 200 iterations.
+         */
+        public Builder untilStable(double tolerance, int maxIterations) {
+            Preconditions.checkArgument(tolerance >= 0, "Tolerance cannot be negative.");
+            Preconditions.checkArgument(maxIterations > 0, "Number of iterations must be positive.");
+            this.maxIterations = maxIterations;
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        public Warmup build() {
+            Preconditions.checkState(!steps.isEmpty(), "Warmup needs at least one request or call.");
+            return new Warmup(ImmutableList.copyOf(steps), maxIterations, tolerance);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import com.google.common.base.Preconditions;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Addresses of hosts which are not routed by {@link NameStore} and are resolved by the name service canaveral falls
+ * back to. JVM does not cache any addresses, so routes can change at any time, see {@link LocalManagedDnsService}.
+ */
+class FallbackCache {
+
+    private static final String PROPERTY_TTL = "canaveral.dns.cache.ttl";
+    private static final String PROPERTY_NEGATIVE_TTL = "canaveral.dns.cache.negative.ttl";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile long ttlNanos;
+    private volatile long negativeTtlNanos;
+
+    FallbackCache() {
+        this(Duration.ofSeconds(Long.getLong(PROPERTY_TTL, 30)),
+                Duration.ofSeconds(Long.getLong(PROPERTY_NEGATIVE_TTL, 10)));
+    }
+
+    FallbackCache(Duration ttl, Duration negativeTtl) {
+        setTtl(ttl, negativeTtl);
+    }
+
+    void setTtl(Duration ttl, Duration negativeTtl) {
+        Preconditions.checkArgument(!ttl.isNegative() && !negativeTtl.isNegative(), "TTL cannot be negative.");
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        entries.clear();
+    }
+
+    InetAddress[] resolve(String hostName, Resolver resolver) throws Throwable {
+        long now = System.nanoTime();
+        Entry entry = entries.get(hostName);
+        if (entry == null || entry.expiresAtNanos - now <= 0) {
+            entry = lookup(hostName, resolver, now);
+        }
+        if (entry.addresses == null) {
+            throw new UnknownHostException(hostName);
+        }
+        return entry.addresses.clone();
+    }
+
+    private Entry lookup(String hostName, Resolver resolver, long now) throws Throwable {
+        Entry entry;
+        long ttl;
+        try {
+            entry = new Entry(resolver.resolve(), now + ttlNanos);
+            ttl = ttlNanos;
+        } catch (UnknownHostException e) {
+            entry = new Entry(null, now + negativeTtlNanos);
+            ttl = negativeTtlNanos;
+        }
+        if (ttl > 0) {
+            entries.put(hostName, entry);
+        }
+        return entry;
+    }
+
+    @FunctionalInterface
+    interface Resolver {
+
+        InetAddress[] resolve() throws Throwable;
+    }
+
+    private static class Entry {
+
+        private final InetAddress[] addresses;
+        private final long expiresAtNanos;
+
+        private Entry(InetAddress[] addresses, long expiresAtNanos) {
+            this.addresses = addresses;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -20,7 +20,7 @@ public class LocalManagedDns {
     }
 
     public InetAddress[] lookupAllHostAddr(String name) throws UnknownHostException {
-        InetAddress ipAddress = NameStore.getInstance().get(name);
+        InetAddress ipAddress = find(name);
         if (ipAddress != null) {
             logger.get().debug("Resolved {} to {}", name, ipAddress);
             return new InetAddress[] {ipAddress};
@@ -28,4 +28,11 @@ public class LocalManagedDns {
             throw new UnknownHostException(name);
         }
     }
+
+    /**
+     * @return address host is routed to or null if it is not routed.
+     */
+    InetAddress find(String name) {
+        return NameStore.getInstance().get(name);
+    }
 }
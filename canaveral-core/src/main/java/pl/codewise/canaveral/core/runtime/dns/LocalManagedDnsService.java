@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,6 +26,7 @@ public class LocalManagedDnsService {
     private static final String PROPERTY_NETWORKADDRESS_CACHE_NEGATIVE_TTL = "networkaddress.cache.negative.ttl";
 
     private static final String INET_ADDRESS_CLASS_NAME = "java.net.InetAddress";
+    private static final String NAME_SERVICE_CLASS_NAME = "sun.net.spi.nameservice.NameService";
     private static final String INET_ADDRESS_FIELD_NAME_SERVICES = "nameServices";
     private static final String INET_ADDRESS_METHOD_CREATE_NS_PROVIDER = "createNSProvider";
     private static final String CLASS_LOADER_METHOD_FIND_LOADED_CLASS = "findLoadedClass";
@@ -36,21 +38,25 @@ public class LocalManagedDnsService {
         installService(false);
     }
 
+    /**
+     * JVM cache of addresses cannot be invalidated when routes of {@link NameStore} change, so it is disabled. Hosts
+     * which are not routed are cached by canaveral name service instead, see
+     * {@link NameStore#cacheResolvedHosts(java.time.Duration, java.time.Duration)}.
+     */
     public static void installService(boolean useSunProvider) {
         log.debug("Setting up service");
         System.setProperty(PROPERTY_NETWORKADDRESS_CACHE_TTL, "0");
         System.setProperty(PROPERTY_NETWORKADDRESS_CACHE_NEGATIVE_TTL, "0");
         setupSystemProperties(useSunProvider);
         Class<?> inetAddressClass = getLoadedClass(INET_ADDRESS_CLASS_NAME);
-        if (inetAddressClass != null) {
-            setupInetAddress(useSunProvider, inetAddressClass);
-        } else {
+        if (inetAddressClass == null) {
             try {
-                ClassLoader.getSystemClassLoader().loadClass(INET_ADDRESS_CLASS_NAME);
+                inetAddressClass = Class.forName(INET_ADDRESS_CLASS_NAME);
             } catch (ClassNotFoundException e) {
                 throw new RuntimeException(e);
             }
         }
+        setupInetAddress(useSunProvider, inetAddressClass);
     }
 
     private static void setupInetAddress(boolean useSunProvider, Class<?> inetAddressClass) {
@@ -62,13 +68,17 @@ public class LocalManagedDnsService {
                     (INET_ADDRESS_METHOD_CREATE_NS_PROVIDER, new Class[] {String.class});
             createNSProviderMethod.setAccessible(true);
             List nameServices = (List) nameServicesField.get(null);
-            nameServices.clear();
-            nameServices.add(createNSProviderMethod.invoke(null, PROVIDER_NAME));
+            NameServiceProxy fallback = new NameServiceProxy(createNSProviderMethod.invoke(null, PROVIDER_DEFAULT));
             if (useSunProvider) {
-                nameServices.add(createNSProviderMethod.invoke(null, PROVIDER_DNS_SUN));
+                fallback = new NameServiceProxy(createNSProviderMethod.invoke(null, PROVIDER_DNS_SUN), fallback);
             }
-            nameServices.add(createNSProviderMethod.invoke(null, PROVIDER_DEFAULT));
-        } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            NameServiceProxy service = new NameServiceProxy(new LocalManagedDns(), fallback,
+                    NameStore.getInstance().getFallbackCache(), NameStore.getInstance().getResolutionMetrics());
+            Object typedNameService = service.exposeInterface(Class.forName(NAME_SERVICE_CLASS_NAME));
+            nameServices.clear();
+            nameServices.add(typedNameService);
+        } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException | InvocationTargetException |
+                ClassNotFoundException e) {
             try {
                 setupInetAddressForJdk9Plus(inetAddressClass);
             } catch (RuntimeException jdk9Exception) {
@@ -83,8 +93,15 @@ public class LocalManagedDnsService {
             log.debug("Setting up inet address for jdk 9");
             Field nameServicesField = inetAddressClass.getDeclaredField(JDK9_INET_ADDRESS_FIELD_NAME_SERVICE);
             nameServicesField.setAccessible(true);
-            NameServiceProxy fallback = new NameServiceProxy(nameServicesField.get(null));
-            NameServiceProxy service = new NameServiceProxy(new LocalManagedDns(), fallback);
+            Object installed = nameServicesField.get(null);
+            if (Proxy.isProxyClass(installed.getClass()) &&
+                    Proxy.getInvocationHandler(installed) instanceof NameServiceProxy) {
+                log.debug("Service is already installed");
+                return;
+            }
+            NameServiceProxy fallback = new NameServiceProxy(installed);
+            NameServiceProxy service = new NameServiceProxy(new LocalManagedDns(), fallback,
+                    NameStore.getInstance().getFallbackCache(), NameStore.getInstance().getResolutionMetrics());
 
             Object typedNameService = Arrays.stream(inetAddressClass.getDeclaredClasses())
                     .filter(cl -> cl.getName().equals(JDK9_INET_ADDRESS_NAME_SERVICE_CLASS_NAME))
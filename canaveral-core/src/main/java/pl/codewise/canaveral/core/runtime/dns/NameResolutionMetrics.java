@@ -0,0 +1,116 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Host name lookups answered by canaveral name service since JVM started or since {@link #reset()}, per host name.
+ */
+public class NameResolutionMetrics {
+
+    private final Map<String, HostMetrics> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @return metrics of each looked up host name, sorted by host name.
+     */
+    public Map<String, HostMetrics> getHosts() {
+        return ImmutableMap.copyOf(new TreeMap<>(hosts));
+    }
+
+    /**
+     * @return metrics of given host name, with all counters at zero if it was not looked up.
+     */
+    public HostMetrics getHost(String hostName) {
+        return hosts.getOrDefault(hostName, new HostMetrics(hostName));
+    }
+
+    public void reset() {
+        hosts.clear();
+    }
+
+    void record(String hostName, Resolution resolution, long durationNanos) {
+        hosts.computeIfAbsent(hostName, HostMetrics::new).add(resolution, durationNanos);
+    }
+
+    enum Resolution {
+        HIT, FALLBACK, FAILURE
+    }
+
+    public static class HostMetrics {
+
+        private final String hostName;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private HostMetrics(String hostName) {
+            this.hostName = hostName;
+        }
+
+        private void add(Resolution resolution, long durationNanos) {
+            switch (resolution) {
+                case HIT:
+                    hits.increment();
+                    break;
+                case FALLBACK:
+                    fallbacks.increment();
+                    break;
+                default:
+                    failures.increment();
+            }
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+
+        public String getHostName() {
+            return hostName;
+        }
+
+        /**
+         * @return number of lookups answered by a route of {@link NameStore}.
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * @return number of lookups answered by the name service canaveral falls back to, including cached ones.
+         */
+        public long getFallbacks() {
+            return fallbacks.sum();
+        }
+
+        /**
+         * @return number of lookups which ended with unknown host.
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getLookups() {
+            return getHits() + getFallbacks() + getFailures();
+        }
+
+        public Duration getTotal() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+
+        public Duration getMax() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return hostName + " " + getHits() + " hits, " + getFallbacks() + " fallbacks, " + getFailures() +
+                    " failures, " + getTotal().toMillis() + "ms";
+        }
+    }
+}
@@ -1,29 +1,61 @@
 package pl.codewise.canaveral.core.runtime.dns;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.net.InetAddress;
 import java.net.UnknownHostException;
 
+/**
+ * Exposes name service as JDK name service interface, which is not public, and falls back to next name service when
+ * host is unknown. Methods of the target are bound once. Canaveral service is asked for routes directly, so hosts it
+ * does not route reach the fallback without any exception thrown.
+ */
 public class NameServiceProxy implements InvocationHandler {
 
-    private final Object target;
-    private final Method lookupAllHostAddr;
-    private final Method getHostByAddr;
+    private static final String LOOKUP_ALL_HOST_ADDR = "lookupAllHostAddr";
+    private static final String GET_HOST_BY_ADDR = "getHostByAddr";
+
+    private final LocalManagedDns local;
+    private final MethodHandle lookupAllHostAddr;
+    private final MethodHandle getHostByAddr;
     private final NameServiceProxy fallback;
+    private final FallbackCache fallbackCache;
+    private final NameResolutionMetrics metrics;
 
     public NameServiceProxy(Object target) throws NoSuchMethodException {
         this(target, null);
     }
 
     public NameServiceProxy(Object target, NameServiceProxy fallback) throws NoSuchMethodException {
-        this.target = target;
-        this.getHostByAddr = target.getClass().getDeclaredMethod("getHostByAddr", byte[].class);
-        this.getHostByAddr.setAccessible(true);
-        this.lookupAllHostAddr = target.getClass().getDeclaredMethod("lookupAllHostAddr", String.class);
-        this.lookupAllHostAddr.setAccessible(true);
+        this(target, fallback, null, null);
+    }
+
+    /**
+     * @param fallbackCache caches hosts looked up by {@code fallback}, or null if they should not be cached.
+     * @param metrics records every host lookup, or null if they should not be recorded.
+     */
+    NameServiceProxy(Object target, NameServiceProxy fallback, FallbackCache fallbackCache,
+            NameResolutionMetrics metrics) throws NoSuchMethodException {
+        this.local = target instanceof LocalManagedDns ? (LocalManagedDns) target : null;
+        this.lookupAllHostAddr = bind(target, LOOKUP_ALL_HOST_ADDR, String.class);
+        this.getHostByAddr = bind(target, GET_HOST_BY_ADDR, byte[].class);
         this.fallback = fallback;
+        this.fallbackCache = fallbackCache;
+        this.metrics = metrics;
+    }
+
+    private static MethodHandle bind(Object target, String methodName, Class<?> parameterType)
+            throws NoSuchMethodException {
+        Method method = target.getClass().getDeclaredMethod(methodName, parameterType);
+        method.setAccessible(true);
+        try {
+            return MethodHandles.lookup().unreflect(method).bindTo(target);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
     }
 
     public <T> T exposeInterface(Class<T> ifc) {
@@ -32,28 +64,69 @@ public class NameServiceProxy implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        return invokeWithFallback(method.getName(), args);
+        switch (method.getName()) {
+            case LOOKUP_ALL_HOST_ADDR:
+                return lookupAllHostAddr((String) args[0]);
+            case GET_HOST_BY_ADDR:
+                return getHostByAddr((byte[]) args[0]);
+            default:
+                throw new UnsupportedOperationException("Method not supported: " + method.getName());
+        }
+    }
+
+    private InetAddress[] lookupAllHostAddr(String host) throws Throwable {
+        long startedAtNanos = System.nanoTime();
+        try {
+            InetAddress[] addresses = lookupOwn(host);
+            if (addresses != null) {
+                record(host, NameResolutionMetrics.Resolution.HIT, startedAtNanos);
+                return addresses;
+            }
+            if (fallback == null) {
+                throw new UnknownHostException(host);
+            }
+            addresses = fallbackCache == null ? fallback.lookupAllHostAddr(host) :
+                    fallbackCache.resolve(host, () -> fallback.lookupAllHostAddr(host));
+            record(host, NameResolutionMetrics.Resolution.FALLBACK, startedAtNanos);
+            return addresses;
+        } catch (UnknownHostException e) {
+            record(host, NameResolutionMetrics.Resolution.FAILURE, startedAtNanos);
+            throw e;
+        }
+    }
+
+    /**
+     * @return addresses of host or null if the target does not know it.
+     */
+    private InetAddress[] lookupOwn(String host) throws Throwable {
+        if (local != null) {
+            InetAddress address = local.find(host);
+            return address == null ? null : new InetAddress[] {address};
+        }
+        try {
+            return (InetAddress[]) lookupAllHostAddr.invokeExact(host);
+        } catch (UnknownHostException e) {
+            return null;
+        }
     }
 
-    private Object invokeWithFallback(String methodName, Object[] args) throws Throwable {
+    private String getHostByAddr(byte[] address) throws Throwable {
+        if (local != null && fallback != null) {
+            return fallback.getHostByAddr(address);
+        }
         try {
-            return findMethod(methodName)
-                    .invoke(target, args[0]);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof UnknownHostException && fallback != null) {
-                return fallback.invokeWithFallback(methodName, args);
+            return (String) getHostByAddr.invokeExact(address);
+        } catch (UnknownHostException e) {
+            if (fallback == null) {
+                throw e;
             }
-            throw e.getCause();
+            return fallback.getHostByAddr(address);
         }
     }
 
-    private Method findMethod(String methodName) {
-        if ("lookupAllHostAddr".equals(methodName)) {
-            return lookupAllHostAddr;
-        } else if ("getHostByAddr".equals(methodName)) {
-            return getHostByAddr;
-        } else {
-            throw new UnsupportedOperationException("Method not supported: " + methodName);
+    private void record(String host, NameResolutionMetrics.Resolution resolution, long startedAtNanos) {
+        if (metrics != null) {
+            metrics.record(host, resolution, System.nanoTime() - startedAtNanos);
         }
     }
 }
@@ -1,6 +1,7 @@
 package pl.codewise.canaveral.core.runtime.dns;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,7 +9,9 @@ import sun.net.util.IPAddressUtil;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -20,7 +23,10 @@ public class NameStore {
 
     private static AtomicReference<NameStore> instance = new AtomicReference<>();
 
-    private Map<String, InetAddress> routingTable = new ConcurrentHashMap<>();
+    private final RouteTrie routingTable = new RouteTrie();
+    private final Map<String, InetAddress> routes = new ConcurrentHashMap<>();
+    private final FallbackCache fallbackCache = new FallbackCache();
+    private final NameResolutionMetrics resolutionMetrics = new NameResolutionMetrics();
 
     public NameStore loopback(String hostName) {
         return this.route(hostName, ADDR_LOOPBACK);
@@ -37,26 +43,67 @@ public class NameStore {
         }
     }
 
+    /**
+     * @param hostName exact host name or wildcard, ex. {@code *.s3.localhost}, which routes all hosts ending with
+     * {@code .s3.localhost} unless they have more specific route.
+     */
     public NameStore route(String hostName, InetAddress inetAddress) {
-        hostName = StringUtils.trimToNull(hostName);
-        Preconditions.checkArgument(hostName != null);
+        hostName = checkHostName(hostName);
         Preconditions.checkArgument(inetAddress != null);
         routingTable.put(hostName, inetAddress);
+        routes.put(hostName, inetAddress);
+        log.debug("Routing {} to {}", hostName, inetAddress);
         return this;
     }
 
     public NameStore defaultRoute(String hostName) {
-        hostName = StringUtils.trimToNull(hostName);
-        Preconditions.checkArgument(hostName != null);
+        hostName = checkHostName(hostName);
         routingTable.remove(hostName);
+        routes.remove(hostName);
+        return this;
+    }
+
+    /**
+     * @return all routes, including wildcard ones, sorted by host name.
+     */
+    public Map<String, InetAddress> getRoutes() {
+        return ImmutableMap.copyOf(new TreeMap<>(routes));
+    }
+
+    /**
+     * Caches addresses of hosts which are not routed here for given time, {@code negativeTtl} is used for unknown
+     * hosts. Routes are never cached. Defaults to 30 and 10 seconds, which can be changed with
+     * {@code -Dcanaveral.dns.cache.ttl} and {@code -Dcanaveral.dns.cache.negative.ttl} in seconds.
+     */
+    public NameStore cacheResolvedHosts(Duration ttl, Duration negativeTtl) {
+        fallbackCache.setTtl(ttl, negativeTtl);
         return this;
     }
 
+    /**
+     * @return lookups of host names answered by canaveral name service.
+     */
+    public NameResolutionMetrics getResolutionMetrics() {
+        return resolutionMetrics;
+    }
+
+    FallbackCache getFallbackCache() {
+        return fallbackCache;
+    }
+
     InetAddress get(String hostName) {
-        log.debug("Looking up hostname = {} in routingTable = {}", hostName, routingTable.entrySet());
         return routingTable.get(hostName);
     }
 
+    private static String checkHostName(String hostName) {
+        hostName = StringUtils.trimToNull(hostName);
+        Preconditions.checkArgument(hostName != null);
+        String name = RouteTrie.isWildcard(hostName) ? hostName.substring(2) : hostName;
+        Preconditions.checkArgument(!name.isEmpty() && !name.contains("*"),
+                "Only the first label of '" + hostName + "' can be a wildcard.");
+        return hostName;
+    }
+
     public static NameStore getInstance() {
         if (instance.get() == null) {
             NameStore nameStore = new NameStore();
@@ -0,0 +1,70 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import java.net.InetAddress;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes of {@link NameStore} keyed by labels of host name in reversed order, ex. {@code bucket.s3.localhost} is
+ * stored under {@code localhost -> s3 -> bucket}. Lookup visits one node per label, however many routes there are.
+ * Wildcard route {@code *.s3.localhost} matches any host with at least one more label, exact routes win over it and
+ * more specific wildcards win over less specific ones.
+ */
+class RouteTrie {
+
+    private static final String WILDCARD = "*.";
+
+    private final Node root = new Node();
+
+    static boolean isWildcard(String hostName) {
+        return hostName.startsWith(WILDCARD);
+    }
+
+    void put(String hostName, InetAddress address) {
+        if (isWildcard(hostName)) {
+            nodeOf(hostName.substring(WILDCARD.length())).wildcard = address;
+        } else {
+            nodeOf(hostName).exact = address;
+        }
+    }
+
+    void remove(String hostName) {
+        put(hostName, null);
+    }
+
+    InetAddress get(String hostName) {
+        String name = hostName.toLowerCase(Locale.ROOT);
+        Node node = root;
+        InetAddress wildcard = null;
+        int end = name.length();
+        while (end > 0) {
+            if (node.wildcard != null) {
+                wildcard = node.wildcard;
+            }
+            int start = name.lastIndexOf('.', end - 1) + 1;
+            node = node.children.get(name.substring(start, end));
+            if (node == null) {
+                return wildcard;
+            }
+            end = start - 1;
+        }
+        return node.exact != null ? node.exact : wildcard;
+    }
+
+    private Node nodeOf(String hostName) {
+        String[] labels = hostName.toLowerCase(Locale.ROOT).split("\\.");
+        Node node = root;
+        for (int i = labels.length - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(labels[i], label -> new Node());
+        }
+        return node;
+    }
+
+    private static class Node {
+
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private volatile InetAddress exact;
+        private volatile InetAddress wildcard;
+    }
+}
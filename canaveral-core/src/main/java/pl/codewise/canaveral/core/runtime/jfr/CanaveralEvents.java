@@ -0,0 +1,76 @@
+package pl.codewise.canaveral.core.runtime.jfr;
+
+/**
+ * Java Flight Recorder events of runner phases and of requests handled by mocks, in "Canaveral" category. An event is
+ * created only while a recording with the event enabled is running, otherwise a no-op is returned, so events can
+ * stay in place permanently. JVMs without the JFR API, ex. JDK 8 before 8u262, get no-ops only.
+ */
+public final class CanaveralEvents {
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private CanaveralEvents() {
+    }
+
+    /**
+     * @return event of runner phase started now and finished when it is closed.
+     */
+    public static Phase runnerPhase(String providerName, String phase) {
+        return AVAILABLE ? JfrEvents.runnerPhase(providerName, phase) : NoOp.INSTANCE;
+    }
+
+    /**
+     * @return event of request handled by mock started now and finished when it is closed.
+     */
+    public static MockRequest mockRequest(String mockName, String operation) {
+        return AVAILABLE ? JfrEvents.mockRequest(mockName, operation) : NoOp.INSTANCE;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            JfrEvents.register();
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public interface Phase extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public interface MockRequest extends AutoCloseable {
+
+        /**
+         * @param rule rule which matched the request, its {@code toString()} is called only if the event is
+         * committed.
+         */
+        MockRequest matched(Object rule);
+
+        MockRequest bytes(long requestBytes, long responseBytes);
+
+        @Override
+        void close();
+    }
+
+    enum NoOp implements Phase, MockRequest {
+        INSTANCE;
+
+        @Override
+        public MockRequest matched(Object rule) {
+            return this;
+        }
+
+        @Override
+        public MockRequest bytes(long requestBytes, long responseBytes) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
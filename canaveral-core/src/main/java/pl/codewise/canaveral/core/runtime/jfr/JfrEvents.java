@@ -0,0 +1,118 @@
+package pl.codewise.canaveral.core.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The only class referring to the JFR API, loaded by {@link CanaveralEvents} only if the API is present.
+ */
+final class JfrEvents {
+
+    private static final EventType RUNNER_PHASE = EventType.getEventType(RunnerPhaseEvent.class);
+    private static final EventType MOCK_REQUEST = EventType.getEventType(MockRequestEvent.class);
+
+    private JfrEvents() {
+    }
+
+    static void register() {
+        // registers event types in static initializer
+    }
+
+    static CanaveralEvents.Phase runnerPhase(String providerName, String phase) {
+        if (!RUNNER_PHASE.isEnabled()) {
+            return CanaveralEvents.NoOp.INSTANCE;
+        }
+        RunnerPhaseEvent event = new RunnerPhaseEvent();
+        event.providerName = providerName;
+        event.phase = phase;
+        event.begin();
+        return event::finish;
+    }
+
+    static CanaveralEvents.MockRequest mockRequest(String mockName, String operation) {
+        if (!MOCK_REQUEST.isEnabled()) {
+            return CanaveralEvents.NoOp.INSTANCE;
+        }
+        return new MockRequestSpan(mockName, operation);
+    }
+
+    @Name("canaveral.RunnerPhase")
+    @Label("Runner Phase")
+    @Category("Canaveral")
+    static class RunnerPhaseEvent extends Event {
+
+        @Label("Provider")
+        String providerName;
+
+        @Label("Phase")
+        String phase;
+
+        private void finish() {
+            end();
+            if (shouldCommit()) {
+                commit();
+            }
+        }
+    }
+
+    @Name("canaveral.MockRequest")
+    @Label("Mock Request")
+    @Category("Canaveral")
+    static class MockRequestEvent extends Event {
+
+        @Label("Mock")
+        String mockName;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Matched Rule")
+        String rule;
+
+        @Label("Request Bytes")
+        @DataAmount
+        long requestBytes;
+
+        @Label("Response Bytes")
+        @DataAmount
+        long responseBytes;
+    }
+
+    private static class MockRequestSpan implements CanaveralEvents.MockRequest {
+
+        private final MockRequestEvent event = new MockRequestEvent();
+        private Object rule;
+
+        private MockRequestSpan(String mockName, String operation) {
+            event.mockName = mockName;
+            event.operation = operation;
+            event.begin();
+        }
+
+        @Override
+        public CanaveralEvents.MockRequest matched(Object rule) {
+            this.rule = rule;
+            return this;
+        }
+
+        @Override
+        public CanaveralEvents.MockRequest bytes(long requestBytes, long responseBytes) {
+            event.requestBytes = requestBytes;
+            event.responseBytes = responseBytes;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.rule = rule == null ? null : rule.toString();
+                event.commit();
+            }
+        }
+    }
+}
@@ -10,6 +10,11 @@ import java.util.Set;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+/**
+ * @deprecated writes to system properties shared by all configurations in the JVM, use
+ * {@link pl.codewise.canaveral.core.runtime.RunnerContext#getProperties()} instead.
+ */
+@Deprecated
 public class PropertyHelper {
 
     private static final Logger log = LoggerFactory.getLogger(PropertyHelper.class);
@@ -0,0 +1,54 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AwaitedProgressTest {
+
+    private final RunnerCache context = new RunnerCache("test", mock(RunnerConfiguration.class));
+
+    @Test
+    void shouldAwaitAllConditionsConcurrentlyAndRecordTheirTime() throws Exception {
+        AtomicBoolean registered = new AtomicBoolean();
+        AtomicBoolean requested = new AtomicBoolean();
+        AwaitedProgress progress = AwaitedProgress.within(Duration.ofSeconds(10))
+                .until("registered", ignored -> registered.get())
+                .until("requested", ignored -> requested.get())
+                .build();
+
+        // when
+        CompletableFuture<Boolean> canProceed = CompletableFuture.supplyAsync(() -> progress.canProceed(context));
+        registered.set(true);
+        context.signalProgress();
+        requested.set(true);
+        context.signalProgress();
+
+        // then
+        assertThat(canProceed.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(context.getStartupReport().getPhase("progress.registered")).isPresent();
+        assertThat(context.getStartupReport().getPhase("progress.requested")).isPresent();
+    }
+
+    @Test
+    void shouldGiveUpAfterDeadline() {
+        AwaitedProgress progress = AwaitedProgress.within(Duration.ofMillis(100))
+                .until("met", ignored -> true)
+                .until("neverMet", ignored -> false)
+                .build();
+
+        // when
+        long startedAt = System.nanoTime();
+        boolean canProceed = progress.canProceed(context);
+
+        // then
+        assertThat(canProceed).isFalse();
+        assertThat(System.nanoTime() - startedAt).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,31 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.mock.MockProviderAdapter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BlockingRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    static volatile CountDownLatch mockStarting = new CountDownLatch(1);
+    static volatile CountDownLatch releaseMock = new CountDownLatch(1);
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("blocking", name -> new MockProviderAdapter<String>(name, name) {
+                            @Override
+                            protected int initialize(RunnerContext context) throws Exception {
+                                mockStarting.countDown();
+                                releaseMock.await(10, TimeUnit.SECONDS);
+                                return 0;
+                            }
+
+                            @Override
+                            public void stop() {
+                            }
+                        }))
+                .build();
+    }
+}
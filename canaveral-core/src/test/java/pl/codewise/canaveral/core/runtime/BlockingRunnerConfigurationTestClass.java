@@ -0,0 +1,6 @@
+package pl.codewise.canaveral.core.runtime;
+
+@ConfigureRunnerWith(configuration = BlockingRunnerConfigurationProvider.class)
+public class BlockingRunnerConfigurationTestClass {
+
+}
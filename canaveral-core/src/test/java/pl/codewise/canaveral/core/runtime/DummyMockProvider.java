@@ -2,7 +2,6 @@ package pl.codewise.canaveral.core.runtime;
 
 import pl.codewise.canaveral.core.mock.MockConfig;
 import pl.codewise.canaveral.core.mock.SimpleMockProvider;
-import pl.codewise.canaveral.core.util.PropertyHelper;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -23,13 +22,13 @@ class DummyMockProvider extends SimpleMockProvider implements LifeCycleListener
     public void initialize(RunnerContext context) {
         calledAfterAllMocksCreated.set(false);
         calledStop.set(false);
-        PropertyHelper.setProperty("com.test.property", "test");
-        PropertyHelper.setProperties(Collections.singleton("com.test.app.property"), "true");
-        PropertyHelper.setProperties(
+        context.getProperties().set("com.test.property", "test");
+        context.getProperties().set(Collections.singleton("com.test.app.property"), "true");
+        context.getProperties().set(
                 Arrays.asList(
                         "com.test.mock.port.property",
                         "com.test.mock2.port.property"),
-                2931);
+                "2931");
         context.register(this);
     }
 
@@ -47,4 +46,22 @@ class DummyMockProvider extends SimpleMockProvider implements LifeCycleListener
     static MockConfig<DummyMockProvider> newConfig() {
         return DummyMockProvider::new;
     }
+
+    static MockConfig<DummyMockProvider> newConfig(String variant) {
+        return new VariantConfig(variant);
+    }
+
+    private static class VariantConfig implements MockConfig<DummyMockProvider> {
+
+        private final String variant;
+
+        private VariantConfig(String variant) {
+            this.variant = variant;
+        }
+
+        @Override
+        public DummyMockProvider build(String mockName) {
+            return new DummyMockProvider(mockName);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package pl.codewise.canaveral.core.runtime;
+
+/**
+ * Provides only mock "first" of {@link FullRunnerConfigurationProvider}, configured the same way.
+ */
+public class FirstMockRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig()))
+                .build();
+    }
+}
@@ -0,0 +1,5 @@
+package pl.codewise.canaveral.core.runtime;
+
+@ConfigureRunnerWith(configuration = FirstMockRunnerConfigurationProvider.class)
+public class FirstMockRunnerConfigurationTestClass {
+}
@@ -0,0 +1,120 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ForkedApplicationProviderTest {
+
+    @Test
+    void shouldCreateArchiveOnFirstRunAndReuseItLater() throws Exception {
+        // given
+        Path archive = Files.createTempDirectory("canaveral-cds").resolve("app.jsa");
+
+        // when
+        String firstRun = String.join(" ", ForkedApplicationProvider.classDataSharingFlags(17, archive));
+        Files.createFile(archive);
+        String nextRun = String.join(" ", ForkedApplicationProvider.classDataSharingFlags(17, archive));
+
+        // then
+        assertThat(firstRun).isEqualTo("-XX:ArchiveClassesAtExit=" + archive);
+        assertThat(nextRun).isEqualTo("-XX:SharedArchiveFile=" + archive);
+    }
+
+    @Test
+    void shouldLetJvmManageArchiveWhenItCan() {
+        // given
+        Path archive = Paths.get(System.getProperty("java.io.tmpdir"), "app.jsa");
+
+        // expect
+        assertThat(ForkedApplicationProvider.classDataSharingFlags(21, archive))
+                .containsExactly("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive);
+        assertThat(ForkedApplicationProvider.classDataSharingFlags(8, archive)).isEmpty();
+    }
+
+    @Test
+    void shouldUseNewArchiveOnceClassPathEntryIsRebuilt() throws Exception {
+        // given
+        Path jar = Files.createTempFile("canaveral-app", ".jar");
+        Files.write(jar, new byte[] {1});
+        String classPath = jar + File.pathSeparator + jar.getParent();
+        Path archive = ForkedApplicationProvider.archiveFile(classPath, "Main", Collections.emptyList());
+
+        // when
+        Files.write(jar, new byte[] {1, 2});
+
+        // then
+        assertThat(ForkedApplicationProvider.archiveFile(classPath, "Main", Collections.emptyList()))
+                .isNotEqualTo(archive);
+    }
+
+    @Test
+    void shouldRunApplicationInForkedJvm() {
+        // given
+        RunnerContext context = new DummyRunnerContext();
+        context.getProperties().set("forked.greeting", "hello");
+        ForkedApplicationProvider provider = ForkedApplicationProvider.builder(ListeningApplication.class.getName())
+                .withStartupTimeout(Duration.ofSeconds(30))
+                .withoutClassDataSharing()
+                .build();
+
+        try {
+            // when
+            provider.start(context);
+
+            // then
+            assertThat(provider.canProceed(context)).isTrue();
+            assertThat(provider.isInitialized()).isTrue();
+            assertThat(provider.getProperty("forked.greeting", null)).isEqualTo("hello");
+            assertThat(provider.getProperty("server.port", null)).isEqualTo(Integer.toString(provider.getPort()));
+            assertThat(provider.getProperty("forked.missing", "default")).isEqualTo("default");
+        } finally {
+            provider.clean();
+        }
+        assertThat(provider.isInitialized()).isFalse();
+    }
+
+    @Test
+    void shouldFailFastWhenForkedJvmExitsBeforeConnectingBack() {
+        // given
+        ForkedApplicationProvider provider = ForkedApplicationProvider.builder(ListeningApplication.class.getName())
+                .withJvmFlags("-XX:+CanaveralUnknownFlag")
+                .withoutClassDataSharing()
+                .build();
+        long startedAt = System.nanoTime();
+
+        // when
+        assertThatThrownBy(() -> provider.start(new DummyRunnerContext()))
+                // then
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exited with code")
+                .hasMessageContaining("canaveral-app-ForkedApplicationProviderTest$ListeningApplication-");
+        assertThat(System.nanoTime() - startedAt).isLessThan(TimeUnit.SECONDS.toNanos(30));
+        assertThat(provider.isInitialized()).isFalse();
+    }
+
+    public static class ListeningApplication {
+
+        public static void main(String[] args) throws IOException {
+            try (ServerSocket server = new ServerSocket(Integer.getInteger("server.port"))) {
+                while (true) {
+                    try (Socket ignored = server.accept()) {
+                        // only accepts connections
+                    }
+                }
+            }
+        }
+    }
+}
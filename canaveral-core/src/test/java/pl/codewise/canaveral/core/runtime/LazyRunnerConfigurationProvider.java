@@ -0,0 +1,96 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+public class LazyRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withLazyMockStartup()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("onConnection", GreetingMockProvider::new)
+                        .provideMock("onInjection", GreetingMockProvider::new)
+                        .provideMock("byType", ByTypeMockProvider::new)
+                        .provideMock(DummyMockProvider.newConfig()))
+                .build();
+    }
+
+    static class GreetingMockProvider implements LazyMockProvider {
+
+        private final String name;
+        private int port;
+        private ServerSocket server;
+        volatile boolean started = false;
+
+        GreetingMockProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void prepare(RunnerContext context) {
+            port = context.getFreePort();
+            context.getProperties().set("lazy." + name + ".port", Integer.toString(port));
+        }
+
+        @Override
+        public void startPrepared(RunnerContext context) throws Exception {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(port));
+            Thread acceptor = new Thread(this::greet);
+            acceptor.setDaemon(true);
+            acceptor.start();
+            started = true;
+        }
+
+        private void greet() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept(); OutputStream out = socket.getOutputStream()) {
+                    out.write(("hello from " + name).getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+
+        @Override
+        public String getHost() {
+            return "localhost";
+        }
+
+        @Override
+        public String getEndpoint() {
+            return "tcp://" + getHost() + ":" + getPort();
+        }
+
+        @Override
+        public String getMockName() {
+            return name;
+        }
+
+        @Override
+        public void stop() throws Exception {
+            server.close();
+        }
+    }
+
+    static class ByTypeMockProvider extends GreetingMockProvider {
+
+        ByTypeMockProvider(String name) {
+            super(name);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class LifeCycleEventsTest {
+
+    private final StartupReport report = new StartupReport("test");
+    private final LifeCycleEvents events = new LifeCycleEvents(report);
+    private final RunnerContext context = mock(RunnerContext.class);
+
+    @Test
+    void shouldCallListenersOfSamePriorityConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ResettingListener first = new ResettingListener(bothStarted);
+        ResettingListener second = new ResettingListener(bothStarted);
+        List<LifeCycleListener> listeners = ImmutableList.of(first, second, new LifeCycleListener() {
+        });
+        Method testMethod = getClass().getDeclaredMethod("shouldCallListenersOfSamePriorityConcurrently");
+
+        // when
+        events.publish(LifeCycleEvents.BEFORE_TEST_METHOD, listeners,
+                listener -> listener.beforeTestMethod(context, this, testMethod));
+
+        // then
+        assertThat(first.finished).isTrue();
+        assertThat(second.finished).isTrue();
+        assertThat(report.getListenerTimings()).containsOnlyKeys("beforeTestMethod.ResettingListener");
+        assertThat(report.getListenerTimings().get("beforeTestMethod.ResettingListener").getCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailAfterAllListenersFinished() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ResettingListener resettingListener = new ResettingListener(bothStarted);
+        LifeCycleListener failingListener = new LifeCycleListener() {
+
+            @Override
+            public void afterTestClass(RunnerContext runnerContext, Class<?> testClass) {
+                bothStarted.countDown();
+                throw new IllegalArgumentException("test - fail on reset");
+            }
+        };
+
+        // when
+        assertThatThrownBy(() -> events.publish(LifeCycleEvents.AFTER_TEST_CLASS,
+                ImmutableList.of(failingListener, resettingListener),
+                listener -> listener.afterTestClass(context, getClass())))
+                // then
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(resettingListener.finished).isTrue();
+    }
+
+    private static class ResettingListener implements LifeCycleListener {
+
+        private final CountDownLatch bothStarted;
+        private volatile boolean finished;
+
+        private ResettingListener(CountDownLatch bothStarted) {
+            this.bothStarted = bothStarted;
+        }
+
+        @Override
+        public void beforeTestMethod(RunnerContext runnerContext, Object testInstance, Method testMethod) {
+            awaitOther();
+        }
+
+        @Override
+        public void afterTestClass(RunnerContext runnerContext, Class<?> testClass) {
+            awaitOther();
+        }
+
+        private void awaitOther() {
+            bothStarted.countDown();
+            try {
+                finished = bothStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
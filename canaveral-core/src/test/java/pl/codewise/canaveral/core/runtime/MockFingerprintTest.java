@@ -0,0 +1,79 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+import pl.codewise.canaveral.core.mock.MockConfig;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockFingerprintTest {
+
+    @Test
+    void shouldDescribePathsByTheirValue() {
+        // when
+        String fingerprint = MockFingerprint.of(new ValueConfig(Paths.get("/tmp/first")));
+
+        // then
+        assertThat(fingerprint).isEqualTo(MockFingerprint.of(new ValueConfig(Paths.get("/tmp/first"))));
+        assertThat(fingerprint).isNotEqualTo(MockFingerprint.of(new ValueConfig(Paths.get("/tmp/second"))));
+    }
+
+    @Test
+    void shouldCutOffCyclicCollections() {
+        // given
+        List<Object> cyclic = new ArrayList<>();
+        cyclic.add(cyclic);
+
+        // when
+        String fingerprint = MockFingerprint.of(new ValueConfig(cyclic));
+
+        // then
+        assertThat(fingerprint).hasSize(16);
+    }
+
+    @Test
+    void shouldFingerprintConfigOnlyWhenRequested() {
+        // given
+        CountingValue value = new CountingValue();
+        RunnerConfiguration.MockProvidersConfiguration configuration = RunnerConfiguration.mocksBuilder()
+                .provideMock("counted", new ValueConfig(value))
+                .build();
+        assertThat(value.described.get()).isEqualTo(0);
+
+        // when
+        String fingerprint = configuration.getFingerprint("counted");
+
+        // then
+        assertThat(fingerprint).isEqualTo(configuration.getFingerprint("counted"));
+        assertThat(value.described.get()).isEqualTo(1);
+        assertThat(configuration.getFingerprint("undefined")).isNull();
+    }
+
+    private static class ValueConfig implements MockConfig<DummyMockProvider> {
+
+        private final Object value;
+
+        private ValueConfig(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public DummyMockProvider build(String mockName) {
+            return DummyMockProvider.newConfig().build(mockName);
+        }
+    }
+
+    private static class CountingValue {
+
+        private final AtomicInteger described = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            return "described " + described.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MockRegistryTest {
+
+    private final MockRegistry registry = new MockRegistry();
+
+    @Test
+    void shouldFindMockBySupertypesAndInterfaces() {
+        ArrayList<String> mock = new ArrayList<>();
+
+        // when
+        registry.register("list", mock);
+
+        // then
+        assertThat(registry.get("list")).isSameAs(mock);
+        assertThat(registry.findFirst(ArrayList.class)).containsSame(mock);
+        assertThat(registry.findFirst(List.class)).containsSame(mock);
+        assertThat(registry.findFirst(Iterable.class)).containsSame(mock);
+        assertThat(registry.findFirst(String.class)).isEmpty();
+    }
+
+    @Test
+    void shouldDetectAmbiguousMocks() {
+        ArrayList<String> first = new ArrayList<>();
+        registry.register("first", first);
+        registry.register("second", new LinkedList<String>());
+
+        // when
+        assertThatThrownBy(() -> registry.findUnique(List.class))
+                // then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("[first, second]");
+        assertThat(registry.findUnique(ArrayList.class)).containsSame(first);
+        assertThat(registry.findFirst(List.class)).containsSame(first);
+    }
+
+    @Test
+    void shouldReindexReplacedMock() {
+        registry.register("mock", new ArrayList<String>());
+        LinkedList<String> replacement = new LinkedList<>();
+
+        // when
+        registry.register("mock", replacement);
+
+        // then
+        assertThat(registry.findFirst(ArrayList.class)).isEmpty();
+        assertThat(registry.findUnique(List.class)).containsSame(replacement);
+    }
+}
@@ -0,0 +1,36 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.ApplicationProvider;
+import pl.codewise.canaveral.core.mock.MockProvider;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.mock;
+
+public class MultiApplicationRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    static final ApplicationProvider applicationProviderMock = mock(ApplicationProvider.class, "main app mock");
+    static final ApplicationProvider siblingProviderMock = mock(ApplicationProvider.class, "sibling app mock");
+    static volatile CountDownLatch mockStarted = new CountDownLatch(1);
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withPipelinedStartup()
+                .withApplicationProvider(applicationProviderMock)
+                .withApplicationProvider("sibling", siblingProviderMock, "pipelined")
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("pipelined", this::provider))
+                .build();
+    }
+
+    private MockProvider provider(String name) {
+        return new LazyRunnerConfigurationProvider.GreetingMockProvider(name) {
+            @Override
+            public void startPrepared(RunnerContext context) throws Exception {
+                super.startPrepared(context);
+                mockStarted.countDown();
+            }
+        };
+    }
+}
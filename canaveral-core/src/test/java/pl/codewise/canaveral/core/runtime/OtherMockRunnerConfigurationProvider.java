@@ -0,0 +1,15 @@
+package pl.codewise.canaveral.core.runtime;
+
+/**
+ * Provides only mock "OtherDummyMock" of {@link FullRunnerConfigurationProvider}, configured the same way.
+ */
+public class OtherMockRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("OtherDummyMock", DummyMockProvider.newConfig()))
+                .build();
+    }
+}
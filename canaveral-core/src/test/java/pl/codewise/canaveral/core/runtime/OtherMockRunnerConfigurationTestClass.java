@@ -0,0 +1,5 @@
+package pl.codewise.canaveral.core.runtime;
+
+@ConfigureRunnerWith(configuration = OtherMockRunnerConfigurationProvider.class)
+public class OtherMockRunnerConfigurationTestClass {
+}
@@ -0,0 +1,41 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.MockProviderAdapter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    static final List<String> startOrder = new CopyOnWriteArrayList<>();
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withParallelMockStartup(4)
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("slow", name -> provider(name, 200))
+                        .provideMock("fast", name -> provider(name, 0))
+                        .provideMock("dependant", name -> provider(name, 0))
+                        .provideMock(DummyMockProvider.newConfig())
+                        .dependsOn("dependant", "slow", "fast"))
+                .build();
+    }
+
+    private MockProvider provider(String name, long startupMillis) {
+        return new MockProviderAdapter<String>(name, name) {
+            @Override
+            protected int initialize(RunnerContext context) throws Exception {
+                TimeUnit.MILLISECONDS.sleep(startupMillis);
+                startOrder.add(getMockName());
+                return 0;
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.ApplicationProvider;
+import pl.codewise.canaveral.core.mock.MockProvider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+
+public class PipelinedRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    static final ApplicationProvider applicationProviderMock = mock(ApplicationProvider.class, "pipelined app mock");
+    static volatile CountDownLatch mockStarted = new CountDownLatch(1);
+    static volatile CountDownLatch bothStarting = new CountDownLatch(2);
+    static final AtomicBoolean startedTogether = new AtomicBoolean();
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withPipelinedStartup()
+                .withParallelMockStartup(2)
+                .withApplicationProvider(applicationProviderMock)
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("pipelined", this::provider)
+                        .provideMock("sibling", this::provider)
+                        .provideMock(DummyMockProvider.newConfig()))
+                .build();
+    }
+
+    private MockProvider provider(String name) {
+        return new LazyRunnerConfigurationProvider.GreetingMockProvider(name) {
+            @Override
+            public void startPrepared(RunnerContext context) throws Exception {
+                bothStarting.countDown();
+                startedTogether.set(bothStarting.await(5, TimeUnit.SECONDS));
+                super.startPrepared(context);
+                mockStarted.countDown();
+            }
+        };
+    }
+}
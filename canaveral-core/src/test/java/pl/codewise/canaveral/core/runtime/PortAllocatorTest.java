@@ -0,0 +1,87 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortAllocatorTest {
+
+    private Path leaseFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        leaseFile = Files.createTempFile("canaveral-ports", ".lease");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(leaseFile);
+    }
+
+    @Test
+    void shouldHandOutDistinctBindablePorts() throws IOException {
+        PortAllocator allocator = new PortAllocator(leaseFile, 4);
+        Set<Integer> ports = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            ports.add(allocator.nextPort());
+        }
+
+        // then
+        assertThat(ports).hasSize(10);
+        for (int port : ports) {
+            try (ServerSocket ignored = new ServerSocket(port)) {
+                assertThat(ignored.getLocalPort()).isEqualTo(port);
+            }
+        }
+    }
+
+    @Test
+    void shouldHandOverBoundChannel() throws IOException {
+        PortAllocator allocator = new PortAllocator(leaseFile, 4);
+
+        // when
+        try (ServerSocketChannel channel = allocator.nextServerSocketChannel()) {
+
+            // then
+            assertThat(channel.isOpen()).isTrue();
+            InetSocketAddress address = (InetSocketAddress) channel.getLocalAddress();
+            assertThat(address.getAddress()).isEqualTo(InetAddress.getLoopbackAddress());
+            assertThat(address.getPort()).isPositive();
+        }
+    }
+
+    @Test
+    void shouldNotHandOutPortsLeasedByOtherAllocator() throws IOException {
+        PortAllocator first = new PortAllocator(leaseFile, 8);
+        PortAllocator second = new PortAllocator(leaseFile, 8);
+        Set<Integer> firstPorts = new HashSet<>();
+        Set<Integer> secondPorts = new HashSet<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            firstPorts.add(first.nextPort());
+            secondPorts.add(second.nextPort());
+        }
+
+        // then
+        assertThat(firstPorts).doesNotContainAnyElementsOf(secondPorts);
+        List<String> leases = Files.readAllLines(leaseFile, StandardCharsets.UTF_8);
+        assertThat(leases).hasSize(16);
+    }
+}
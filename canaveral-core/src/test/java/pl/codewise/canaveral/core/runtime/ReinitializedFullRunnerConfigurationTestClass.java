@@ -0,0 +1,5 @@
+package pl.codewise.canaveral.core.runtime;
+
+@ConfigureRunnerWith(configuration = FullRunnerConfigurationProvider.class, reinitialize = true)
+public class ReinitializedFullRunnerConfigurationTestClass {
+}
@@ -0,0 +1,20 @@
+package pl.codewise.canaveral.core.runtime;
+
+/**
+ * Same as {@link FullRunnerConfigurationProvider}, except for one property and config of one of its mocks.
+ */
+public class ReinitializedRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withSystemProperty("default.service.property", "changed")
+                .registerRandomPortUnder("app.port")
+                .withApplicationProvider(FullRunnerConfigurationProvider.applicationProviderMock)
+                .withTestConfigurationProvider(FullRunnerConfigurationProvider.testContextMock)
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig())
+                        .provideMock("OtherDummyMock", DummyMockProvider.newConfig("changed")))
+                .build();
+    }
+}
@@ -2,7 +2,7 @@ package pl.codewise.canaveral.core.runtime;
 
 import pl.codewise.canaveral.core.bean.inject.InjectMock;
 
-@ConfigureRunnerWith(configuration = FullRunnerConfigurationProvider.class, reinitialize = true)
+@ConfigureRunnerWith(configuration = ReinitializedRunnerConfigurationProvider.class, reinitialize = true)
 public class ReinitializedRunnerConfigurationTestClass {
 
     @InjectMock
@@ -0,0 +1,54 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+import pl.codewise.canaveral.core.mock.MockCost;
+
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceBudgetTest {
+
+    @Test
+    void shouldThrottleHeavyMocksButNotLightOnes() throws Exception {
+        // given
+        ResourceBudget budget = new ResourceBudget(Files.createTempDirectory("canaveral-budget"), 1, 4, 1024);
+        ResourceBudget.Lease heavy = budget.acquire(MockCost.heavy());
+
+        // when
+        CompletableFuture<ResourceBudget.Lease> nextHeavy = CompletableFuture.supplyAsync(() -> acquire(budget,
+                MockCost.heavy()));
+        ResourceBudget.Lease light = budget.acquire(MockCost.light());
+
+        // then
+        assertThat(light).isSameAs(ResourceBudget.Lease.NONE);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(nextHeavy).isNotDone();
+
+        heavy.close();
+        nextHeavy.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    void shouldCapCostExceedingWholeBudget() throws Exception {
+        // given
+        ResourceBudget budget = new ResourceBudget(Files.createTempDirectory("canaveral-budget"), 1, 2, 128);
+
+        // when
+        ResourceBudget.Lease lease = budget.acquire(MockCost.light().withThreads(8).withMemoryMb(4096));
+
+        // then
+        assertThat(lease).isNotSameAs(ResourceBudget.Lease.NONE);
+        lease.close();
+    }
+
+    private static ResourceBudget.Lease acquire(ResourceBudget budget, MockCost cost) {
+        try {
+            return budget.acquire(cost);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,22 +1,37 @@
 package pl.codewise.canaveral.core.runtime;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
@@ -189,6 +204,19 @@ class RunnerTest {
         assertThat(mock.calledAfterAllMocksCreated.get()).isTrue();
     }
 
+    @Test
+    void shouldKeepPropertiesInScopeOfConfiguration() {
+        // when
+        runner.configureRunnerForTest(MinimalRunnerConfigurationTestClass.class);
+
+        // then
+        RunnerCache runnerCache = cache.get(MinimalRunnerConfigurationProvider.class.getCanonicalName());
+        assertThat(runnerCache.getProperties().get("default.service.property")).isEqualTo("ok");
+        assertThat(runnerCache.getProperties().get("com.test.property")).isEqualTo("test");
+        assertThat(System.getProperty("default.service.property")).isNull();
+        assertThat(System.getProperty("com.test.property")).isNull();
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void shouldInjectRequestedMocks() {
@@ -232,6 +260,38 @@ class RunnerTest {
         assertThat(passedAnnotationCaptor.getValue()).hasSize(2);
     }
 
+    @Test
+    void shouldResolveInjectionsOncePerTestClass() {
+        setCanProceedForApplicationAndTestContext();
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(FullRunnerConfigurationProvider.applicationProviderMock.findBeanOrThrow(eq(Clock.class), any()))
+                .thenReturn(Clock.systemUTC());
+        when(FullRunnerConfigurationProvider.applicationProviderMock.findBeanOrThrow(eq(ObjectMapper.class), any()))
+                .thenReturn(objectMapper);
+        when(FullRunnerConfigurationProvider.testContextMock.findBeanOrThrow(eq(Clock.class), any()))
+                .thenReturn(Clock.systemUTC());
+
+        TestInstanceHelper testInstanceHelper = runner.configureRunnerForTest(FullRunnerConfigurationTestClass.class);
+        FullRunnerConfigurationTestClass firstInstance = new FullRunnerConfigurationTestClass();
+        FullRunnerConfigurationTestClass secondInstance = new FullRunnerConfigurationTestClass();
+
+        // when
+        testInstanceHelper.initializeTestInstance(firstInstance);
+        testInstanceHelper.initializeTestInstance(secondInstance);
+
+        // then
+        assertThat(secondInstance.mapper).isSameAs(objectMapper);
+        assertThat(secondInstance.mockProvider).isSameAs(firstInstance.mockProvider);
+        verify(FullRunnerConfigurationProvider.applicationProviderMock, times(1))
+                .findBeanOrThrow(eq(ObjectMapper.class), any());
+        verify(FullRunnerConfigurationProvider.applicationProviderMock, times(2)).inject(any());
+
+        RunnerCache runnerCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
+        InjectionPlan plan = runnerCache.getInjectionPlan(FullRunnerConfigurationTestClass.class);
+        runnerCache.setCleaned();
+        assertThat(runnerCache.getInjectionPlan(FullRunnerConfigurationTestClass.class)).isNotSameAs(plan);
+    }
+
     @Test
     void shouldReinitializeContextWhenRequired() {
         //given
@@ -242,9 +302,10 @@ class RunnerTest {
                 .extracting(RunnerCache::isNotInitialized).containsOnly(false);
 
         //given
-        RunnerCache minimalRunnerCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
+        RunnerCache fullRunnerCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
 
-        DummyMockProvider firstDummyMock = minimalRunnerCache.getMock(DummyMockProvider.class);
+        DummyMockProvider firstDummyMock = (DummyMockProvider) fullRunnerCache.getMock("first");
+        DummyMockProvider otherDummyMock = (DummyMockProvider) fullRunnerCache.getMock("OtherDummyMock");
 
         //ensure that stop method wasn't invoked
         assertThat(firstDummyMock.calledStop.get()).isFalse();
@@ -253,18 +314,81 @@ class RunnerTest {
         runner.configureRunnerForTest(ReinitializedRunnerConfigurationTestClass.class);
 
         //then
-        RunnerCache reinitializedRunnerCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
-        DummyMockProvider reinitializedDummyMockProvider = reinitializedRunnerCache.getMock(DummyMockProvider.class);
-
-        //ensures dummyMockProvider was reinitialize and new isntance was created
-        assertThat(reinitializedDummyMockProvider).isNotEqualTo(firstDummyMock);
+        RunnerCache reinitializedRunnerCache =
+                cache.get(ReinitializedRunnerConfigurationProvider.class.getCanonicalName());
 
         //cache should be cleaned and initialized with new RunnerConfiguration
         assertThat(cache).hasSize(1);
+        assertThat(reinitializedRunnerCache.isNotInitialized()).isFalse();
+        verify(FullRunnerConfigurationProvider.applicationProviderMock).clean();
 
-        //stop method has been called for the first the first mock
-        assertThat(firstDummyMock.calledStop.get()).isTrue();
-        assertThat(reinitializedDummyMockProvider.calledStop.get()).isFalse();
+        //mock configured the same way keeps running
+        assertThat(reinitializedRunnerCache.getMock("first")).isSameAs(firstDummyMock);
+        assertThat(firstDummyMock.calledStop.get()).isFalse();
+        assertThat(reinitializedRunnerCache.getProperties().get("com.test.property")).isEqualTo("test");
+
+        //changed mock was restarted
+        DummyMockProvider reinitializedOtherMock =
+                (DummyMockProvider) reinitializedRunnerCache.getMock("OtherDummyMock");
+        assertThat(reinitializedOtherMock).isNotSameAs(otherDummyMock);
+        assertThat(otherDummyMock.calledStop.get()).isTrue();
+        assertThat(reinitializedOtherMock.calledStop.get()).isFalse();
+        assertThat(reinitializedRunnerCache.getProperties().get("default.service.property")).isEqualTo("changed");
+    }
+
+    @Test
+    void shouldReuseRunningMocksOfOneClockOnly() {
+        setCanProceedForApplicationAndTestContext();
+        runner.configureRunnerForTest(FirstMockRunnerConfigurationTestClass.class);
+        runner.configureRunnerForTest(OtherMockRunnerConfigurationTestClass.class);
+        RunnerCache firstCache = cache.get(FirstMockRunnerConfigurationProvider.class.getCanonicalName());
+        RunnerCache otherCache = cache.get(OtherMockRunnerConfigurationProvider.class.getCanonicalName());
+        DummyMockProvider firstMock = (DummyMockProvider) firstCache.getMock("first");
+        DummyMockProvider otherMock = (DummyMockProvider) otherCache.getMock("OtherDummyMock");
+        assertThat(firstCache.getClock()).isNotSameAs(otherCache.getClock());
+
+        // when
+        runner.configureRunnerForTest(ReinitializedFullRunnerConfigurationTestClass.class);
+
+        // then
+        RunnerCache reinitializedCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
+        boolean firstReused = reinitializedCache.getMock("first") == firstMock;
+        boolean otherReused = reinitializedCache.getMock("OtherDummyMock") == otherMock;
+        assertThat(firstReused).isNotEqualTo(otherReused);
+        assertThat(reinitializedCache.getClock())
+                .isSameAs(firstReused ? firstCache.getClock() : otherCache.getClock());
+        assertThat(firstMock.calledStop.get()).isEqualTo(!firstReused);
+        assertThat(otherMock.calledStop.get()).isEqualTo(!otherReused);
+    }
+
+    @Test
+    void shouldInitializeDifferentConfigurationsConcurrently() throws Exception {
+        cache = new ConcurrentHashMap<>();
+        runner = new Runner(cache);
+        BlockingRunnerConfigurationProvider.mockStarting = new CountDownLatch(1);
+        BlockingRunnerConfigurationProvider.releaseMock = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TestInstanceHelper> blocked = executor.submit(
+                    () -> runner.configureRunnerForTest(BlockingRunnerConfigurationTestClass.class));
+            assertThat(BlockingRunnerConfigurationProvider.mockStarting.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            runner.configureRunnerForTest(MinimalRunnerConfigurationTestClass.class);
+
+            // then
+            assertThat(cache.get(MinimalRunnerConfigurationProvider.class.getCanonicalName()).isNotInitialized())
+                    .isFalse();
+            assertThat(blocked.isDone()).isFalse();
+
+            BlockingRunnerConfigurationProvider.releaseMock.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            assertThat(cache.get(BlockingRunnerConfigurationProvider.class.getCanonicalName()).isNotInitialized())
+                    .isFalse();
+        } finally {
+            BlockingRunnerConfigurationProvider.releaseMock.countDown();
+            executor.shutdownNow();
+        }
     }
 
     @Test
@@ -285,6 +409,241 @@ class RunnerTest {
                 .isEqualTo(MockProviderAdapterConfigurationProvider.dummyMockWrapper.providedMock());
     }
 
+    @Test
+    void shouldRecordTimingOfStartupPhases() throws IOException {
+        setCanProceedForApplicationAndTestContext();
+
+        // when
+        runner.configureRunnerForTest(FullRunnerConfigurationTestClass.class);
+
+        // then
+        RunnerCache runnerCache = cache.get(FullRunnerConfigurationProvider.class.getCanonicalName());
+        StartupReport report = runnerCache.getStartupReport();
+        assertThat(report.getPhases())
+                .extracting(StartupReport.Phase::getName)
+                .containsExactlyInAnyOrder(
+                        "properties",
+                        "mock.first.start",
+                        "mock.OtherDummyMock.start",
+                        "listeners.afterAllMocksCreated",
+                        "mocks.snapshot",
+                        "application.start",
+                        "mocks.await",
+                        "application.canProceed",
+                        "testContext.initialize",
+                        "testContext.canProceed");
+        JsonNode json = new ObjectMapper().readTree(report.toJson());
+        assertThat(json.get("provider").asText()).isEqualTo(FullRunnerConfigurationProvider.class.getCanonicalName());
+        assertThat(json.get("phases")).hasSize(report.getPhases().size());
+
+        // when
+        runner.clearRunnerCache(runnerCache);
+
+        // then
+        assertThat(report.getPhase("mock.first.stop")).isPresent();
+        assertThat(report.getPhase("application.clean")).isPresent();
+    }
+
+    @Test
+    void shouldStartMocksInParallelHonouringDependencies() {
+        ParallelRunnerConfigurationProvider.startOrder.clear();
+
+        // when
+        runner.configureRunnerForTest(ParallelRunnerConfigurationTestClass.class);
+
+        // then
+        RunnerCache runnerCache = cache.get(ParallelRunnerConfigurationProvider.class.getCanonicalName());
+        assertThat(runnerCache.isNotInitialized()).isFalse();
+        assertThat(runnerCache.getMocks()).hasSize(4);
+        assertThat(ParallelRunnerConfigurationProvider.startOrder).containsExactly("fast", "slow", "dependant");
+
+        DummyMockProvider mock = runnerCache.getMock(DummyMockProvider.class);
+        assertThat(mock.calledAfterAllMocksCreated.get()).isTrue();
+    }
+
+    @Test
+    void shouldStartLazyMocksOnFirstConnectionOrInjection() throws IOException {
+        runner.configureRunnerForTest(LazyRunnerConfigurationTestClass.class);
+        RunnerCache runnerCache = cache.get(LazyRunnerConfigurationProvider.class.getCanonicalName());
+        LazyRunnerConfigurationProvider.GreetingMockProvider onConnection = mockProvider(runnerCache, "onConnection");
+        LazyRunnerConfigurationProvider.GreetingMockProvider onInjection = mockProvider(runnerCache, "onInjection");
+        assertThat(onConnection.started).isFalse();
+        assertThat(onInjection.started).isFalse();
+
+        // when
+        String greeting;
+        try (Socket socket = new Socket("localhost",
+                Integer.parseInt(runnerCache.getProperties().get("lazy.onConnection.port")))) {
+            greeting = new String(ByteStreams.toByteArray(socket.getInputStream()), StandardCharsets.UTF_8);
+        }
+        Object injected = runnerCache.getMock("onInjection");
+
+        // then
+        assertThat(greeting).isEqualTo("hello from onConnection");
+        assertThat(onConnection.started).isTrue();
+        assertThat(injected).isSameAs(onInjection);
+        assertThat(onInjection.started).isTrue();
+        assertThat(runnerCache.getStartupReport().getPhase("mock.onInjection.lazyStart")).isPresent();
+    }
+
+    @Test
+    void shouldStartOnlyLazyMocksOfInjectedType() {
+        runner.configureRunnerForTest(LazyRunnerConfigurationTestClass.class);
+        RunnerCache runnerCache = cache.get(LazyRunnerConfigurationProvider.class.getCanonicalName());
+
+        // when
+        Object injected = runnerCache.getMock(LazyRunnerConfigurationProvider.ByTypeMockProvider.class);
+
+        // then
+        assertThat(injected).isSameAs(mockProvider(runnerCache, "byType"));
+        assertThat(mockProvider(runnerCache, "byType").started).isTrue();
+        assertThat(mockProvider(runnerCache, "onConnection").started).isFalse();
+        assertThat(mockProvider(runnerCache, "onInjection").started).isFalse();
+    }
+
+    private static LazyRunnerConfigurationProvider.GreetingMockProvider mockProvider(RunnerCache runnerCache,
+            String name) {
+        return (LazyRunnerConfigurationProvider.GreetingMockProvider) runnerCache.getMocks()
+                .filter(mock -> mock.getMockName().equals(name))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @Test
+    void shouldStartApplicationAlongWithPipelinedMocks() {
+        Mockito.reset(PipelinedRunnerConfigurationProvider.applicationProviderMock);
+        PipelinedRunnerConfigurationProvider.mockStarted = new CountDownLatch(1);
+        PipelinedRunnerConfigurationProvider.bothStarting = new CountDownLatch(2);
+        AtomicReference<String> publishedPort = new AtomicReference<>();
+        AtomicBoolean mockStartedDuringApplicationStart = new AtomicBoolean();
+        doAnswer(invocation -> {
+            publishedPort.set(invocation.<RunnerContext>getArgument(0).getProperties().get("lazy.pipelined.port"));
+            mockStartedDuringApplicationStart.set(
+                    PipelinedRunnerConfigurationProvider.mockStarted.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(PipelinedRunnerConfigurationProvider.applicationProviderMock).start(any());
+        when(PipelinedRunnerConfigurationProvider.applicationProviderMock.canProceed(any())).thenReturn(true);
+
+        // when
+        runner.configureRunnerForTest(PipelinedRunnerConfigurationTestClass.class);
+
+        // then
+        assertThat(publishedPort.get()).isNotNull();
+        assertThat(mockStartedDuringApplicationStart.get()).isTrue();
+        assertThat(PipelinedRunnerConfigurationProvider.startedTogether.get()).isTrue();
+
+        RunnerCache runnerCache = cache.get(PipelinedRunnerConfigurationProvider.class.getCanonicalName());
+        assertThat(runnerCache.getMock("pipelined")).isNotNull();
+        assertThat(runnerCache.getMock("sibling")).isNotNull();
+        DummyMockProvider dummyMock = runnerCache.getMock(DummyMockProvider.class);
+        assertThat(dummyMock.calledAfterAllMocksCreated.get()).isTrue();
+    }
+
+    @Test
+    void shouldStartApplicationsConcurrentlyOnceTheirMocksAreStarted() {
+        Mockito.reset(MultiApplicationRunnerConfigurationProvider.applicationProviderMock,
+                MultiApplicationRunnerConfigurationProvider.siblingProviderMock);
+        MultiApplicationRunnerConfigurationProvider.mockStarted = new CountDownLatch(1);
+        CountDownLatch bothStarting = new CountDownLatch(2);
+        AtomicBoolean startedTogether = new AtomicBoolean();
+        AtomicBoolean mockStartedBeforeSibling = new AtomicBoolean();
+        doAnswer(invocation -> {
+            bothStarting.countDown();
+            startedTogether.set(bothStarting.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(MultiApplicationRunnerConfigurationProvider.applicationProviderMock).start(any());
+        doAnswer(invocation -> {
+            mockStartedBeforeSibling.set(MultiApplicationRunnerConfigurationProvider.mockStarted.getCount() == 0);
+            bothStarting.countDown();
+            return null;
+        }).when(MultiApplicationRunnerConfigurationProvider.siblingProviderMock).start(any());
+        when(MultiApplicationRunnerConfigurationProvider.applicationProviderMock.canProceed(any())).thenReturn(true);
+        when(MultiApplicationRunnerConfigurationProvider.siblingProviderMock.canProceed(any())).thenReturn(true);
+
+        // when
+        runner.configureRunnerForTest(MultiApplicationRunnerConfigurationTestClass.class);
+
+        // then
+        assertThat(startedTogether.get()).isTrue();
+        assertThat(mockStartedBeforeSibling.get()).isTrue();
+
+        RunnerCache runnerCache = cache.get(MultiApplicationRunnerConfigurationProvider.class.getCanonicalName());
+        assertThat(runnerCache.getApplicationProvider("sibling"))
+                .isSameAs(MultiApplicationRunnerConfigurationProvider.siblingProviderMock);
+        assertThat(runnerCache.getStartupReport().getPhases())
+                .extracting(StartupReport.Phase::getName)
+                .contains("application.start", "application.sibling.awaitMocks", "application.sibling.start",
+                        "application.sibling.canProceed");
+
+        runner.clearRunnerCache(runnerCache);
+        verify(MultiApplicationRunnerConfigurationProvider.siblingProviderMock).clean();
+    }
+
+    @Test
+    void shouldRejectCyclicMockDependencies() {
+        RunnerConfiguration.MockBuilder mockBuilder = RunnerConfiguration.mocksBuilder()
+                .provideMock("first", DummyMockProvider.newConfig())
+                .provideMock("second", DummyMockProvider.newConfig())
+                .dependsOn("first", "second")
+                .dependsOn("second", "first");
+
+        // when
+        assertThatThrownBy(mockBuilder::build)
+                // then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cycle");
+    }
+
+    @Test
+    void shouldRejectDependencyOnUndefinedMock() {
+        RunnerConfiguration.MockBuilder mockBuilder = RunnerConfiguration.mocksBuilder()
+                .provideMock("first", DummyMockProvider.newConfig())
+                .dependsOn("first", "missing");
+
+        // when
+        assertThatThrownBy(mockBuilder::build)
+                // then
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("missing");
+    }
+
+    @Test
+    void shouldStopMocksInParallelAndAbandonThoseWhichOverrun() {
+        runner.configureRunnerForTest(SlowShutdownRunnerConfigurationTestClass.class);
+        RunnerCache runnerCache = cache.get(SlowShutdownRunnerConfigurationProvider.class.getCanonicalName());
+        DummyMockProvider dummyMock = runnerCache.getMock(DummyMockProvider.class);
+        long startedAt = System.nanoTime();
+
+        // when
+        runner.clearRunnerCache(runnerCache);
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(5));
+        assertThat(runnerCache.isNotInitialized()).isTrue();
+        assertThat(dummyMock.calledStop.get()).isTrue();
+
+        StartupReport report = runnerCache.getStartupReport();
+        assertThat(report.getOverranPhases()).containsExactly("mock.hanging.stop");
+        assertThat(report.getPhase("mock.hanging.stop").map(StartupReport.Phase::isOverran)).contains(true);
+        assertThat(report.getPhase("mock.slow.stop").map(StartupReport.Phase::isOverran)).contains(false);
+    }
+
+    @Test
+    void shouldAbandonRemainingMockStopsWhenInterrupted() {
+        runner.configureRunnerForTest(SlowShutdownRunnerConfigurationTestClass.class);
+        RunnerCache runnerCache = cache.get(SlowShutdownRunnerConfigurationProvider.class.getCanonicalName());
+
+        // when
+        Thread.currentThread().interrupt();
+        runner.clearRunnerCache(runnerCache);
+
+        // then
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(runnerCache.isNotInitialized()).isTrue();
+        assertThat(runnerCache.getStartupReport().getOverranPhases())
+                .contains("mock.hanging.stop", "mock.slow.stop");
+    }
+
     private void setCanProceedForApplicationAndTestContext() {
         when(FullRunnerConfigurationProvider.applicationProviderMock.canProceed(any()))
                 .thenReturn(true);
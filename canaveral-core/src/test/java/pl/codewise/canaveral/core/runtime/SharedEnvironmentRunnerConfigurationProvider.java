@@ -0,0 +1,38 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.mock.SimpleMockProvider;
+import pl.codewise.canaveral.core.runtime.dns.NameStore;
+
+import java.lang.management.ManagementFactory;
+
+public class SharedEnvironmentRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    static final String HOSTED_BY_PROPERTY = "shared.hosted.by";
+    static final String ROUTED_HOST = "hosted.shared.canaveral";
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withSharedEnvironment()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("hosted", HostedMockProvider::new))
+                .build();
+    }
+
+    static class HostedMockProvider extends SimpleMockProvider {
+
+        HostedMockProvider(String name) {
+            super(name);
+        }
+
+        @Override
+        protected void initialize(RunnerContext context) {
+            context.getProperties().set(HOSTED_BY_PROPERTY, ManagementFactory.getRuntimeMXBean().getName());
+            NameStore.getInstance().loopback(ROUTED_HOST);
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+import pl.codewise.canaveral.core.mock.MockConfig;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SharedEnvironmentTest {
+
+    @Test
+    void shouldFingerprintSameConfigurationTheSameWay() {
+        // when
+        String first = SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class,
+                new FullRunnerConfigurationProvider().configure());
+        String second = SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class,
+                new FullRunnerConfigurationProvider().configure());
+
+        // then
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void shouldChangeFingerprintWhenConfigurationChanges() {
+        RunnerConfiguration configuration = RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig()))
+                .build();
+        RunnerConfiguration withOtherMock = RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("second", DummyMockProvider.newConfig()))
+                .build();
+        RunnerConfiguration withProperty = RunnerConfiguration.builder()
+                .withSystemProperty("some.property", "value")
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig()))
+                .build();
+
+        // when
+        String fingerprint = SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, configuration);
+
+        // then
+        assertThat(fingerprint)
+                .isNotEqualTo(SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, withOtherMock))
+                .isNotEqualTo(SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, withProperty));
+    }
+
+    @Test
+    void shouldNotShareDaemonBetweenBuildsInDifferentDirectories() {
+        RunnerConfiguration configuration = new SharedEnvironmentRunnerConfigurationProvider().configure();
+        String key = SharedEnvironment.keyOf(SharedEnvironmentRunnerConfigurationProvider.class, configuration);
+        String workingDirectory = System.getProperty("user.dir");
+
+        // when
+        String otherCheckoutKey;
+        try {
+            System.setProperty("user.dir", workingDirectory + "-other-checkout");
+            otherCheckoutKey = SharedEnvironment.keyOf(SharedEnvironmentRunnerConfigurationProvider.class,
+                    configuration);
+        } finally {
+            System.setProperty("user.dir", workingDirectory);
+        }
+
+        // then
+        assertThat(key).startsWith(SharedEnvironmentRunnerConfigurationProvider.class.getName() + "-");
+        assertThat(otherCheckoutKey).isNotEqualTo(key);
+    }
+
+    @Test
+    void shouldChangeFingerprintWhenContentOfMockConfigChanges() {
+        RunnerConfiguration configuration = RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig("one")))
+                .build();
+        RunnerConfiguration sameContent = RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig("one")))
+                .build();
+        RunnerConfiguration otherContent = RunnerConfiguration.builder()
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("first", DummyMockProvider.newConfig("two")))
+                .build();
+
+        // when
+        String fingerprint = SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, configuration);
+
+        // then
+        assertThat(fingerprint)
+                .isEqualTo(SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, sameContent))
+                .isNotEqualTo(SharedEnvironment.fingerprint(FullRunnerConfigurationProvider.class, otherContent));
+    }
+
+    @Test
+    void shouldFingerprintLambdaConfigsIndependentlyOfLambdaClassNames() {
+        // given
+        MockConfig<SharedEnvironmentRunnerConfigurationProvider.HostedMockProvider> first =
+                SharedEnvironmentRunnerConfigurationProvider.HostedMockProvider::new;
+        MockConfig<SharedEnvironmentRunnerConfigurationProvider.HostedMockProvider> second =
+                SharedEnvironmentRunnerConfigurationProvider.HostedMockProvider::new;
+
+        // when
+        String fingerprint = MockFingerprint.acrossJvms(first);
+
+        // then
+        assertThat(first.getClass()).isNotEqualTo(second.getClass());
+        assertThat(fingerprint).isEqualTo(MockFingerprint.acrossJvms(second));
+        assertThat(MockFingerprint.of(first)).isNotEqualTo(MockFingerprint.of(second));
+    }
+
+    @Test
+    void shouldHostMocksInDaemonSharedByAttachedJvms() throws Exception {
+        Class<SharedEnvironmentRunnerConfigurationProvider> providerClass =
+                SharedEnvironmentRunnerConfigurationProvider.class;
+        RunnerConfiguration configuration = new SharedEnvironmentRunnerConfigurationProvider().configure();
+        Path portFile = SharedEnvironment.fileOf(SharedEnvironment.keyOf(providerClass, configuration), "port");
+
+        // when
+        try (SharedEnvironment first = SharedEnvironment.attach(providerClass, configuration, 1);
+             SharedEnvironment second = SharedEnvironment.attach(providerClass, configuration, 1)) {
+
+            // then
+            String hostedBy = first.getPublishedProperties()
+                    .getProperty(SharedEnvironmentRunnerConfigurationProvider.HOSTED_BY_PROPERTY);
+            assertThat(hostedBy).isNotNull().isNotEqualTo(ManagementFactory.getRuntimeMXBean().getName());
+            assertThat(second.getPublishedProperties()
+                    .getProperty(SharedEnvironmentRunnerConfigurationProvider.HOSTED_BY_PROPERTY))
+                    .isEqualTo(hostedBy);
+            assertThat(first.getPublishedRoutes()
+                    .getProperty(SharedEnvironmentRunnerConfigurationProvider.ROUTED_HOST))
+                    .isEqualTo(InetAddress.getLoopbackAddress().getHostAddress());
+
+            RunnerCache attached = new RunnerCache(providerClass.getName(), configuration);
+            attached.setSharedEnvironment(first);
+            assertThatThrownBy(() -> attached.getMock("hosted"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("shared environment daemon");
+        }
+
+        // then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (Files.exists(portFile) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        assertThat(Files.exists(portFile)).isFalse();
+    }
+}
@@ -0,0 +1,35 @@
+package pl.codewise.canaveral.core.runtime;
+
+import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.MockProviderAdapter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class SlowShutdownRunnerConfigurationProvider implements RunnerConfigurationProvider {
+
+    @Override
+    public RunnerConfiguration configure() {
+        return RunnerConfiguration.builder()
+                .withParallelMockShutdown(Duration.ofMillis(200))
+                .withMocks(RunnerConfiguration.mocksBuilder()
+                        .provideMock("hanging", name -> provider(name, 10_000))
+                        .provideMock("slow", name -> provider(name, 100))
+                        .provideMock(DummyMockProvider.newConfig()))
+                .build();
+    }
+
+    private MockProvider provider(String name, long shutdownMillis) {
+        return new MockProviderAdapter<String>(name, name) {
+            @Override
+            protected int initialize(RunnerContext context) {
+                return 0;
+            }
+
+            @Override
+            public void stop() throws Exception {
+                TimeUnit.MILLISECONDS.sleep(shutdownMillis);
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package pl.codewise.canaveral.core.runtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupReportTest {
+
+    @Test
+    void shouldWriteValidJsonWhateverNamesContain() throws IOException {
+        // given
+        StartupReport report = new StartupReport("provider \"quoted\" \\ ");
+        report.measure("mock.multi\nline\t.start").close();
+        report.recordListener("beforeTest.\u0001listener", 1_000_000);
+        report.recordWarmup(Collections.singletonList(Duration.ofMillis(3)));
+
+        // when
+        JsonNode json = new ObjectMapper().readTree(report.toJson());
+
+        // then
+        assertThat(json.get("provider").asText()).isEqualTo("provider \"quoted\" \\ ");
+        assertThat(json.get("phases").get(0).get("name").asText()).isEqualTo("mock.multi\nline\t.start");
+        assertThat(json.get("listeners").get(0).get("name").asText()).isEqualTo("beforeTest.\u0001listener");
+        assertThat(json.get("warmupMillis").get(0).asDouble()).isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,45 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualClockTest {
+
+    private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
+    private final VirtualClock clock = new VirtualClock(Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldFireDueTimersInOrderWhenAdvanced() {
+        // given
+        List<String> fired = new ArrayList<>();
+        clock.schedule(Duration.ofMinutes(10), () -> fired.add("ten"));
+        clock.schedule(Duration.ofMinutes(1), () -> {
+            fired.add("one");
+            clock.schedule(Duration.ofMinutes(2), () -> fired.add("three"));
+        });
+        clock.schedule(Duration.ofMinutes(5), () -> fired.add("five")).cancel();
+
+        // when
+        clock.advance(Duration.ofMinutes(5));
+
+        // then
+        assertThat(clock.instant()).isEqualTo(NOW.plus(Duration.ofMinutes(5)));
+        assertThat(fired).containsExactly("one", "three");
+
+        // when
+        clock.advance(Duration.ofHours(1));
+
+        // then
+        assertThat(fired).containsExactly("one", "three", "ten");
+        assertThat(clock.getOffset()).isEqualTo(Duration.ofMinutes(65));
+    }
+}
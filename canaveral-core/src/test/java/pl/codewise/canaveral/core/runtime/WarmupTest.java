@@ -0,0 +1,47 @@
+package pl.codewise.canaveral.core.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupTest {
+
+    @Test
+    void shouldRunGivenNumberOfIterations() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Warmup warmup = Warmup.builder()
+                .call(context -> calls.incrementAndGet())
+                .call(context -> calls.incrementAndGet())
+                .times(7)
+                .build();
+
+        // when
+        List<Duration> curve = warmup.run(new DummyRunnerContext());
+
+        // then
+        assertThat(curve).hasSize(7);
+        assertThat(calls).hasValue(14);
+    }
+
+    @Test
+    void shouldStopOnceLatencyStabilizes() throws Exception {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        Warmup warmup = Warmup.builder()
+                .call(context -> Thread.sleep(calls.incrementAndGet() < 5 ? 40 : 10))
+                .untilStable(0.5, 100)
+                .build();
+
+        // when
+        List<Duration> curve = warmup.run(new DummyRunnerContext());
+
+        // then
+        assertThat(curve).hasSizeBetween(10, 15);
+        assertThat(curve.get(0)).isGreaterThan(curve.get(curve.size() - 1));
+    }
+}
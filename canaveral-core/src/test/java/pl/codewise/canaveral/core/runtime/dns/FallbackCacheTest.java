@@ -0,0 +1,51 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FallbackCacheTest {
+
+    @Test
+    void shouldResolveHostOnlyOnceWithinTtl() throws Throwable {
+        // given
+        FallbackCache cache = new FallbackCache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        AtomicInteger lookups = new AtomicInteger();
+        FallbackCache.Resolver resolver = () -> {
+            lookups.incrementAndGet();
+            return new InetAddress[] {InetAddress.getLoopbackAddress()};
+        };
+
+        // when
+        cache.resolve("example.com", resolver);
+        InetAddress[] addresses = cache.resolve("example.com", resolver);
+
+        // then
+        assertThat(addresses).containsExactly(InetAddress.getLoopbackAddress());
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheUnknownHostsWithoutNegativeTtl() throws Throwable {
+        // given
+        FallbackCache cache = new FallbackCache(Duration.ofMinutes(1), Duration.ZERO);
+        AtomicInteger lookups = new AtomicInteger();
+        FallbackCache.Resolver resolver = () -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException("unknown.example.com");
+        };
+
+        // expect
+        assertThatThrownBy(() -> cache.resolve("unknown.example.com", resolver))
+                .isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> cache.resolve("unknown.example.com", resolver))
+                .isInstanceOf(UnknownHostException.class);
+        assertThat(lookups).hasValue(2);
+    }
+}
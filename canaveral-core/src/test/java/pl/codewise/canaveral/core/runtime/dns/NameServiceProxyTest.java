@@ -0,0 +1,59 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NameServiceProxyTest {
+
+    private static final String ROUTED_HOST = "proxy-test.canaveral.localhost";
+    private static final String KNOWN_HOST = "known.example.com";
+
+    @Test
+    void shouldRecordWhoAnsweredEachLookup() throws Exception {
+        // given
+        NameStore.getInstance().loopback(ROUTED_HOST);
+        NameResolutionMetrics metrics = new NameResolutionMetrics();
+        NameServiceProxy fallback = new NameServiceProxy(new StaticNameService());
+        NameService service = new NameServiceProxy(new LocalManagedDns(), fallback, null, metrics)
+                .exposeInterface(NameService.class);
+
+        // when
+        InetAddress[] routed = service.lookupAllHostAddr(ROUTED_HOST);
+        InetAddress[] known = service.lookupAllHostAddr(KNOWN_HOST);
+
+        // then
+        assertThat(routed).containsExactly(NameStore.ADDR_LOOPBACK);
+        assertThat(known).containsExactly(InetAddress.getByName("10.0.0.1"));
+        assertThatThrownBy(() -> service.lookupAllHostAddr("unknown.example.com"))
+                .isInstanceOf(UnknownHostException.class);
+        assertThat(metrics.getHost(ROUTED_HOST).getHits()).isEqualTo(1);
+        assertThat(metrics.getHost(KNOWN_HOST).getFallbacks()).isEqualTo(1);
+        assertThat(metrics.getHost("unknown.example.com").getFailures()).isEqualTo(1);
+    }
+
+    interface NameService {
+
+        InetAddress[] lookupAllHostAddr(String host) throws UnknownHostException;
+
+        String getHostByAddr(byte[] address) throws UnknownHostException;
+    }
+
+    private static class StaticNameService {
+
+        private InetAddress[] lookupAllHostAddr(String host) throws UnknownHostException {
+            if (KNOWN_HOST.equals(host)) {
+                return new InetAddress[] {InetAddress.getByName("10.0.0.1")};
+            }
+            throw new UnknownHostException(host);
+        }
+
+        private String getHostByAddr(byte[] address) throws UnknownHostException {
+            throw new UnknownHostException();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package pl.codewise.canaveral.core.runtime.dns;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NameStoreTest {
+
+    private final NameStore nameStore = new NameStore();
+
+    @Test
+    void shouldPreferExactAndMoreSpecificRoutes() throws Exception {
+        // given
+        InetAddress exact = InetAddress.getByName("10.0.0.1");
+        InetAddress specific = InetAddress.getByName("10.0.0.2");
+        nameStore.loopback("*.localhost")
+                .route("*.s3.localhost", specific)
+                .route("images.s3.localhost", exact);
+
+        // expect
+        assertThat(nameStore.get("images.s3.localhost")).isEqualTo(exact);
+        assertThat(nameStore.get("Created-Later.S3.localhost")).isEqualTo(specific);
+        assertThat(nameStore.get("a.b.s3.localhost")).isEqualTo(specific);
+        assertThat(nameStore.get("s3.localhost")).isEqualTo(NameStore.ADDR_LOOPBACK);
+        assertThat(nameStore.get("localhost")).isNull();
+        assertThat(nameStore.get("example.com")).isNull();
+    }
+
+    @Test
+    void shouldRemoveWildcardRoute() {
+        // given
+        nameStore.loopback("*.s3.localhost");
+
+        // when
+        nameStore.defaultRoute("*.s3.localhost");
+
+        // then
+        assertThat(nameStore.get("bucket.s3.localhost")).isNull();
+        assertThatThrownBy(() -> nameStore.loopback("bucket.*.localhost"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,32 @@
+package pl.codewise.canaveral.core.runtime.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanaveralEventsTest {
+
+    @Test
+    void shouldReturnNoOpWhenNotRecording() {
+        // when
+        CanaveralEvents.Phase phase = CanaveralEvents.runnerPhase("provider", "mocks");
+        CanaveralEvents.MockRequest request = CanaveralEvents.mockRequest("mock", "GET /");
+
+        // then
+        assertThat(phase).isSameAs(CanaveralEvents.NoOp.INSTANCE);
+        assertThat(request).isSameAs(CanaveralEvents.NoOp.INSTANCE);
+    }
+
+    @Test
+    void shouldIgnoreDetailsOfNoOpRequest() {
+        // given
+        CanaveralEvents.MockRequest request = CanaveralEvents.mockRequest("mock", "GET /");
+
+        // when
+        CanaveralEvents.MockRequest chained = request.matched(new Object()).bytes(1, 2);
+        request.close();
+
+        // then
+        assertThat(chained).isSameAs(request);
+    }
+}
@@ -5,10 +5,12 @@ import com.sun.net.httpserver.HttpExchange;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.Optional;
 
 import static pl.codewise.canaveral.mock.http.Mime.TEXT;
 
@@ -16,12 +18,14 @@ class DispatchingHandler {
 
     private static final Logger log = LoggerFactory.getLogger(DispatchingHandler.class);
 
+    private final String mockName;
     private final HttpRuleRepository repository;
     private final Recorder recorder;
     private final HttpResponseRule UNKNOWN = new HttpResponseRule(new byte[0], TEXT, HttpStatusCode.NOT_FOUND, new
             Headers());
 
-    DispatchingHandler(HttpRuleRepository repository, Recorder recorder) {
+    DispatchingHandler(String mockName, HttpRuleRepository repository, Recorder recorder) {
+        this.mockName = mockName;
         this.repository = repository;
         this.recorder = recorder;
     }
@@ -29,7 +33,14 @@ class DispatchingHandler {
     void handle(HttpExchange exchange) {
         URI requestURI = exchange.getRequestURI();
         String requestMethod = exchange.getRequestMethod();
+        try (CanaveralEvents.MockRequest event = CanaveralEvents.mockRequest(mockName,
+                requestMethod + " " + requestURI.getPath())) {
+            handle(exchange, requestURI, requestMethod, event);
+        }
+    }
 
+    private void handle(HttpExchange exchange, URI requestURI, String requestMethod,
+            CanaveralEvents.MockRequest event) {
         byte[] body;
         try {
             body = IOUtils.toByteArray(exchange.getRequestBody());
@@ -40,9 +51,11 @@ class DispatchingHandler {
         recorder.add(rawRequest);
 
         log.debug("Trying to find a response for {} {}", requestMethod, requestURI);
-        HttpResponseRule ruleResponse = repository.findRule(rawRequest)
+        Optional<MockRule> rule = repository.findRule(rawRequest);
+        HttpResponseRule ruleResponse = rule
                 .map(MockRule::getResponse)
                 .orElse(UNKNOWN);
+        event.matched(rule.orElse(null)).bytes(body.length, ruleResponse.getBody().length);
 
         if (ruleResponse == UNKNOWN) {
             log.warn("Could not match request to {} /{}", requestMethod, requestURI);
@@ -4,10 +4,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.sun.net.httpserver.HttpServer;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
 import pl.codewise.canaveral.core.mock.MockConfig;
-import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.Snapshotable;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
 import java.net.InetSocketAddress;
@@ -22,9 +21,7 @@ import java.util.function.Predicate;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 
-public class HttpNoDepsMockProvider implements MockProvider {
-
-    private static final Logger log = LoggerFactory.getLogger(HttpNoDepsMockProvider.class);
+public class HttpNoDepsMockProvider implements LazyMockProvider, Snapshotable {
 
     private final ProviderConfig mockConfig;
     private final String mockName;
@@ -66,26 +63,25 @@ public class HttpNoDepsMockProvider implements MockProvider {
 
     @Override
     public void start(RunnerContext context) throws Exception {
+        prepare(context);
+        startPrepared(context);
+    }
+
+    @Override
+    public void prepare(RunnerContext context) {
         this.port = context.getFreePort();
 
-        if (!mockConfig.endpointProperties.isEmpty()) {
-            mockConfig.endpointProperties.forEach(property -> {
-                System.setProperty(property, getEndpoint());
-                log.info("Setting system property {} to {}.", property, System.getProperty(property));
-            });
-        }
-        if (!mockConfig.portProperties.isEmpty()) {
-            mockConfig.portProperties.forEach(property -> {
-                System.setProperty(property, Integer.toString(getPort()));
-                log.info("Setting system property {} to {}.", property, System.getProperty(property));
-            });
-        }
+        context.getProperties().set(mockConfig.endpointProperties, getEndpoint());
+        context.getProperties().set(mockConfig.portProperties, Integer.toString(getPort()));
+    }
 
+    @Override
+    public void startPrepared(RunnerContext context) throws Exception {
         repository = new HttpRuleRepository(mockConfig.defaultsRules);
-        recorder = new Recorder();
+        recorder = new Recorder(context::signalProgress, context::isWarmingUp);
 
         mockRuleProvider = new MockRuleProvider(repository);
-        DispatchingHandler dispatchingHandler = new DispatchingHandler(repository, recorder);
+        DispatchingHandler dispatchingHandler = new DispatchingHandler(mockName, repository, recorder);
         mockServer = HttpServer.create(new InetSocketAddress(port), 0);
         mockServer.createContext("/", dispatchingHandler::handle);
         mockServer.start();
@@ -112,6 +108,17 @@ public class HttpNoDepsMockProvider implements MockProvider {
         recorder.reset();
     }
 
+    @Override
+    public void takeSnapshot() {
+        repository.takeSnapshot();
+    }
+
+    @Override
+    public void restoreSnapshot() {
+        repository.restoreSnapshot();
+        recorder.reset();
+    }
+
     public List<HttpRawRequest> getCapturedRequests() {
         return recorder.getLastRequests();
     }
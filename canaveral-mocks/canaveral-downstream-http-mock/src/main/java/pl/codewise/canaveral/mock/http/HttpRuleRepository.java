@@ -11,6 +11,7 @@ public class HttpRuleRepository implements HttpRuleCreator {
 
     private final List<MockRule> defaultRules;
     private volatile List<MockRule> rules = new CopyOnWriteArrayList<>();
+    private volatile List<MockRule> snapshot;
 
     HttpRuleRepository(List<MockRule> defaults) {
         defaultRules = ImmutableList.copyOf(defaults);
@@ -40,6 +41,14 @@ public class HttpRuleRepository implements HttpRuleCreator {
         rules = new CopyOnWriteArrayList<>(defaultRules);
     }
 
+    void takeSnapshot() {
+        snapshot = ImmutableList.copyOf(rules);
+    }
+
+    void restoreSnapshot() {
+        rules = new CopyOnWriteArrayList<>(snapshot == null ? defaultRules : snapshot);
+    }
+
     Optional<MockRule> findRule(HttpRawRequest request) {
         return rules.stream().filter(rule -> rule.getCondition().test(request)).findFirst();
     }
@@ -121,6 +121,11 @@ class MockRule {
         return Objects.hashCode(request);
     }
 
+    @Override
+    public String toString() {
+        return request == null ? "MockRule{custom condition}" : request.toString();
+    }
+
     Predicate<HttpRawRequest> getCondition() {
         return condition;
     }
@@ -6,16 +6,29 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 
 class Recorder {
 
     private static final Logger log = LoggerFactory.getLogger(Recorder.class);
 
     private final List<HttpRawRequest> recordedRequests = new ArrayList<>();
+    private final Runnable onRequest;
+    private final BooleanSupplier paused;
+
+    Recorder(Runnable onRequest, BooleanSupplier paused) {
+        this.onRequest = onRequest;
+        this.paused = paused;
+    }
 
     void add(HttpRawRequest rawRequest) {
+        if (paused.getAsBoolean()) {
+            log.trace("Not recording request {} received during warmup.", rawRequest);
+            return;
+        }
         log.trace("Recording new request {}. Recorded so far {}.", rawRequest, recordedRequests.size());
         recordedRequests.add(rawRequest);
+        onRequest.run();
     }
 
     List<HttpRawRequest> getLastRequests() {
@@ -25,7 +25,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static java.lang.System.getProperty;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -369,6 +368,10 @@ class HttpNoDepsMockProviderIntegrationTest {
         }
     }
 
+    private String getProperty(String name) {
+        return runnerContext.getProperties().get(name);
+    }
+
     private static class HttpResponse {
 
         private final String bodyAsString;
@@ -390,4 +393,4 @@ class HttpNoDepsMockProviderIntegrationTest {
                             .add(header.getValue()));
         }
     }
-}
\ No newline at end of file
+}
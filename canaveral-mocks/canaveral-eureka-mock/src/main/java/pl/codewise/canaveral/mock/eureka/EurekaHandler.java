@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
+import com.google.common.primitives.Longs;
 import com.netflix.appinfo.DataCenterInfo;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.appinfo.LeaseInfo;
@@ -12,13 +13,17 @@ import com.netflix.appinfo.MyDataCenterInfo;
 import com.netflix.discovery.converters.jackson.EurekaJsonJacksonCodec;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
+import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.VirtualClock;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
@@ -40,16 +45,37 @@ class EurekaHandler implements HttpHandler {
 
     private final List<Application> staticApplications = new CopyOnWriteArrayList<>();
     private final Map<String, Application> lazyApplications = new ConcurrentHashMap<>();
+    private final Map<String, VirtualClock.Timer> leases = new ConcurrentHashMap<>();
+    private final String mockName;
     private final Pattern pathPattern;
     private final ObjectMapper objectMapper;
+    private final Runnable onRegistration;
+    private final VirtualClock clock;
 
-    EurekaHandler(String pathToMock) {
+    EurekaHandler(String mockName, String pathToMock, Runnable onRegistration, VirtualClock clock) {
+        this.mockName = mockName;
         pathPattern = Pattern.compile(pathToMock + ".*");
         objectMapper = new ObjectMapper();
+        this.onRegistration = onRegistration;
+        this.clock = clock;
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
+        try (CanaveralEvents.MockRequest event = CanaveralEvents.mockRequest(mockName,
+                exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath())) {
+            handleRequest(exchange);
+            event.bytes(contentLength(exchange.getRequestHeaders()), contentLength(exchange.getResponseHeaders()));
+        }
+    }
+
+    private static long contentLength(Headers headers) {
+        String header = headers.getFirst("Content-Length");
+        Long contentLength = header == null ? null : Longs.tryParse(header);
+        return contentLength == null ? 0 : contentLength;
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
         log.debug("Trying to handle a response for {} {}", exchange.getRequestMethod(), exchange.getRequestURI());
 
         String incomingPath = exchange.getRequestURI().getPath();
@@ -65,6 +91,7 @@ class EurekaHandler implements HttpHandler {
                     String message = "Could not find appID in " + appIds;
                     respondWith(exchange, message.getBytes(), 404, MediaType.PLAIN_TEXT_UTF_8);
                 } else {
+                    renewLease(instanceInfo.getInstance());
                     String body = objectMapper.writerFor(InstanceInfoWrapper.class)
                             .writeValueAsString(instanceInfo);
                     respondWith(exchange, body);
@@ -82,6 +109,8 @@ class EurekaHandler implements HttpHandler {
                     log.info("New app {} was registered with {}:{} - status {}.",
                             appName, instance.getIPAddr(), instance.getPort(), instance.getStatus());
                     lazyApplications.put(appName, createApplication(instance));
+                    renewLease(instance);
+                    onRegistration.run();
 
                     respondWithNoContent(exchange);
 
@@ -116,6 +145,32 @@ class EurekaHandler implements HttpHandler {
                 .orElse(null);
     }
 
+    /**
+     * Lazily registered application is removed once its lease expires on the runner clock without heartbeat, which
+     * happens only when the clock is advanced.
+     */
+    private void renewLease(InstanceInfo instance) {
+        String appName = instance.getAppName();
+        LeaseInfo leaseInfo = instance.getLeaseInfo();
+        int durationInSecs = leaseInfo == null || leaseInfo.getDurationInSecs() <= 0 ?
+                LeaseInfo.DEFAULT_LEASE_DURATION : leaseInfo.getDurationInSecs();
+        Instant expiresAt = clock.instant().plusSeconds(durationInSecs);
+        VirtualClock.Timer previous = leases.put(appName,
+                clock.scheduleAt(expiresAt, () -> expireLease(appName, expiresAt)));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void expireLease(String appName, Instant expiresAt) {
+        VirtualClock.Timer lease = leases.get(appName);
+        if (lease != null && lease.getDueAt().equals(expiresAt) && leases.remove(appName, lease)) {
+            log.info("Lease of app {} expired.", appName);
+            lazyApplications.remove(appName);
+            versionDelta.incrementAndGet();
+        }
+    }
+
     void setStaticApplications(List<Application> staticApplications) {
         this.staticApplications.addAll(staticApplications);
     }
@@ -170,11 +225,11 @@ class EurekaHandler implements HttpHandler {
     }
 
     Application createApplication(String appName, int port, String host) {
-        return new Application(appName, ImmutableList.of(instanceInfo(appName, port, host)));
+        return new Application(appName, ImmutableList.of(instanceInfo(appName, port, host, clock)));
     }
 
-    static InstanceInfo instanceInfo(String instanceId, String appName, int port, String host) {
-        long nowTimestamp = Instant.now().toEpochMilli();
+    static InstanceInfo instanceInfo(String instanceId, String appName, int port, String host, Clock clock) {
+        long nowTimestamp = clock.millis();
         return new InstanceInfo(
                 instanceId,
                 appName,
@@ -206,8 +261,8 @@ class EurekaHandler implements HttpHandler {
                 "");
     }
 
-    static InstanceInfo instanceInfo(String appName, int port, String host) {
-        return instanceInfo(UUID.randomUUID().toString(), appName, port, host);
+    static InstanceInfo instanceInfo(String appName, int port, String host, Clock clock) {
+        return instanceInfo(UUID.randomUUID().toString(), appName, port, host, clock);
     }
 
     private static String toJson(Applications apps) {
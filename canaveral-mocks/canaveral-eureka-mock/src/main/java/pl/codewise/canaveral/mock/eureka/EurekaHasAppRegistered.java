@@ -2,15 +2,14 @@ package pl.codewise.canaveral.mock.eureka;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.jayway.awaitility.Awaitility;
-import com.jayway.awaitility.Duration;
 import com.netflix.appinfo.InstanceInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.AwaitedProgress;
 import pl.codewise.canaveral.core.runtime.ProgressAssertion;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 public class EurekaHasAppRegistered implements ProgressAssertion {
 
@@ -20,37 +19,44 @@ public class EurekaHasAppRegistered implements ProgressAssertion {
     private final InstanceInfo.InstanceStatus status;
 
     public EurekaHasAppRegistered(String appName) {
-        this(appName, java.time.Duration.ofMinutes(1));
+        this(appName, Duration.ofMinutes(1));
     }
 
-    public EurekaHasAppRegistered(String appName, java.time.Duration maxWaitTime) {
+    public EurekaHasAppRegistered(String appName, Duration maxWaitTime) {
         this(appName, maxWaitTime, InstanceInfo.InstanceStatus.UP);
     }
 
-    public EurekaHasAppRegistered(String appName, java.time.Duration maxWaitTime, InstanceInfo.InstanceStatus status) {
+    public EurekaHasAppRegistered(String appName, Duration maxWaitTime, InstanceInfo.InstanceStatus status) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(appName), "App name cannot be empty.");
         Preconditions.checkNotNull(status, "Status cannot be null!");
         this.appName = appName;
-        this.maxWaitFor = new Duration(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS);
+        this.maxWaitFor = Preconditions.checkNotNull(maxWaitTime, "Max wait time cannot be null!");
         this.status = status;
     }
 
+    /**
+     * Waits until the application registers itself, checking right after each registration in the mock.
+     */
     @Override
     public boolean canProceed(RunnerContext context) {
+        boolean registered = AwaitedProgress.within(maxWaitFor)
+                .until("eureka." + appName, this::isRegistered)
+                .build()
+                .canProceed(context);
+        if (registered) {
+            log.info("Found {} APP which is UP!", appName);
+        }
+        return registered;
+    }
+
+    private boolean isRegistered(RunnerContext context) {
         EurekaMockProvider eurekaMockProvider = context.getMock(EurekaMockProvider.class);
-        Awaitility.await()
-                .atMost(maxWaitFor)
-                .pollInterval(Duration.ONE_HUNDRED_MILLISECONDS)
-                .until(() -> eurekaMockProvider.getAllApplications().stream()
-                        .filter(app -> appName.equalsIgnoreCase(app.getName()))
-                        .flatMap(app -> app.getInstances().stream())
-                        .peek(instanceInfo -> log.trace("Checking app {} with status {}.", instanceInfo.getAppName(),
-                                instanceInfo.getStatus()))
-                        .map(InstanceInfo::getStatus)
-                        .filter(status::equals)
-                        .findFirst()
-                        .orElse(null) != null);
-        log.info("Found {} APP which is UP!", appName);
-        return true;
+        return eurekaMockProvider.getAllApplications().stream()
+                .filter(app -> appName.equalsIgnoreCase(app.getName()))
+                .flatMap(app -> app.getInstances().stream())
+                .peek(instanceInfo -> log.trace("Checking app {} with status {}.", instanceInfo.getAppName(),
+                        instanceInfo.getStatus()))
+                .map(InstanceInfo::getStatus)
+                .anyMatch(status::equals);
     }
 }
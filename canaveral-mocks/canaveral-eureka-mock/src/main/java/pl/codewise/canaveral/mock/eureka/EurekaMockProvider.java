@@ -71,14 +71,15 @@ public class EurekaMockProvider implements MockProvider {
     @Override
     public void start(RunnerContext context) throws Exception {
         this.port = context.getFreePort();
-        eurekaHandler = new EurekaHandler(mockConfig.pathToMock);
+        eurekaHandler = new EurekaHandler(mockName, mockConfig.pathToMock, context::signalProgress, context.getClock());
 
         List<Application> staticRegisteredApplications =
                 mockConfig.registeredApplications.entrySet().stream()
                         .map(entry -> {
                             String appName = entry.getKey();
                             List<InstanceInfo> instances = entry.getValue().stream()
-                                    .map(instance -> instanceInfo(instance.id, appName, instance.port, instance.host))
+                                    .map(instance -> instanceInfo(instance.id, appName, instance.port, instance.host,
+                                            context.getClock()))
                                     .collect(Collectors.toList());
                             return new Application(appName, instances);
                         })
@@ -90,12 +91,12 @@ public class EurekaMockProvider implements MockProvider {
         mockServer.start();
 
         if (mockConfig.enableLazyRegistration) {
-            System.setProperty("eureka.instance.ipAddress", "localhost");
-            System.setProperty("eureka.instance.hostname", "localhost");
-            System.setProperty("eureka.client.registration.enabled", "true");
+            context.getProperties().set("eureka.instance.ipAddress", "localhost");
+            context.getProperties().set("eureka.instance.hostname", "localhost");
+            context.getProperties().set("eureka.client.registration.enabled", "true");
         }
 
-        System.setProperty(mockConfig.endpointProperty, getEndpoint());
+        context.getProperties().set(mockConfig.endpointProperty, getEndpoint());
     }
 
     public void allMocksCreated(RunnerContext cache) {
@@ -17,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import pl.codewise.canaveral.core.mock.DiscoverableMockProvider;
 import pl.codewise.canaveral.core.mock.MockProvider;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -42,6 +43,7 @@ class EurekaMockProviderIntegrationTest {
     private final ObjectMapper responseMapper = new EurekaJsonJacksonCodec().getObjectMapper(Applications.class);
     private final ObjectMapper requestMapper = new EurekaJsonJacksonCodec().getObjectMapper(EurekaHandler
             .InstanceInfoWrapper.class);
+    private final ScopedProperties properties = new ScopedProperties();
     @Mock
     private RunnerContext runnerContext;
     @Mock
@@ -62,6 +64,7 @@ class EurekaMockProviderIntegrationTest {
                 .build("EUREKA_APP");
 
         when(runnerContext.getFreePort()).thenCallRealMethod();
+        when(runnerContext.getProperties()).thenReturn(properties);
 
         eurekaMockProvider.start(runnerContext);
 
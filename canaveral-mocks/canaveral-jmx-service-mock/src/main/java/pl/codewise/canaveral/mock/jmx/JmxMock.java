@@ -25,12 +25,14 @@ public class JmxMock {
 
     private static final Logger log = LoggerFactory.getLogger(JmxMock.class);
 
+    private final String mockName;
     private List<JmxMockRule> rules;
     private JMXConnectorServer svr;
     private Registry rmiRegistry;
     private MBeanServer mBeanServer;
 
-    public JmxMock(List<JmxMockRule> rules) {
+    public JmxMock(String mockName, List<JmxMockRule> rules) {
+        this.mockName = mockName;
         this.rules = rules;
     }
 
@@ -44,7 +46,7 @@ public class JmxMock {
 
         for (Map.Entry<String, List<JmxMockRule>> ruleEntry : rulesByMBean.entrySet()) {
             mBeanServer.registerMBean(
-                    new MockMBean(ruleEntry.getValue()),
+                    new MockMBean(mockName, ruleEntry.getValue()),
                     new ObjectName(ruleEntry.getKey()));
         }
     }
@@ -48,11 +48,11 @@ public class JmxMockProvider implements MockProvider {
     @Override
     public void start(RunnerContext context) throws Exception {
         this.port = context.getFreePort();
-        this.jmxMockInstance = new JmxMock(jmxMockConfig.getRules());
+        this.jmxMockInstance = new JmxMock(mockName, jmxMockConfig.getRules());
         jmxMockInstance.start(getEndpoint(), getPort());
         String jmxPortProperty = jmxMockConfig.getJmxPortProperty();
         if (!Strings.isNullOrEmpty(jmxPortProperty)) {
-            System.setProperty(jmxPortProperty, Integer.toString(port));
+            context.getProperties().set(jmxPortProperty, Integer.toString(port));
         }
     }
 
@@ -32,4 +32,9 @@ public class JmxMockRule {
     public String getObjectName() {
         return objectName;
     }
+
+    @Override
+    public String toString() {
+        return objectName + "#" + methodName + Arrays.toString(parameters);
+    }
 }
@@ -2,6 +2,7 @@ package pl.codewise.canaveral.mock.jmx;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -22,9 +23,11 @@ public class MockMBean implements DynamicMBean {
 
     private static final Logger log = LoggerFactory.getLogger(MockMBean.class);
 
+    private final String mockName;
     private final List<JmxMockRule> rules;
 
-    public MockMBean(List<JmxMockRule> rules) {
+    public MockMBean(String mockName, List<JmxMockRule> rules) {
+        this.mockName = mockName;
         this.rules = rules;
     }
 
@@ -58,10 +61,13 @@ public class MockMBean implements DynamicMBean {
     @Override
     public Object invoke(String actionName, Object[] params, String[] signature)
             throws MBeanException, ReflectionException {
-        Optional<JmxMockRule> matchingRule = findMatchingRule(actionName, params);
-        return matchingRule.orElseThrow(
-                () -> new IllegalArgumentException("No matching rule for parameters " + actionName + " " + params))
-                .getResponse().get();
+        try (CanaveralEvents.MockRequest event = CanaveralEvents.mockRequest(mockName, actionName)) {
+            Optional<JmxMockRule> matchingRule = findMatchingRule(actionName, params);
+            event.matched(matchingRule.orElse(null));
+            return matchingRule.orElseThrow(
+                    () -> new IllegalArgumentException("No matching rule for parameters " + actionName + " " + params))
+                    .getResponse().get();
+        }
     }
 
     @Override
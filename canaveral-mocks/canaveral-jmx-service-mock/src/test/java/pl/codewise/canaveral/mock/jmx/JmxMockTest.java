@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
@@ -50,6 +51,7 @@ class JmxMockTest {
 
         final RunnerContext runnerContext = Mockito.mock(RunnerContext.class);
         Mockito.when(runnerContext.getFreePort()).thenCallRealMethod();
+        Mockito.when(runnerContext.getProperties()).thenReturn(new ScopedProperties());
         jmxMockProvider.start(runnerContext);
     }
 
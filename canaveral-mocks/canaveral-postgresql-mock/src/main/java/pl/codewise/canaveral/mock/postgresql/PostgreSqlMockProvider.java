@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.RowMapper;
 import org.testcontainers.containers.PostgreSQLContainer;
 import pl.codewise.canaveral.core.mock.MockConfig;
+import pl.codewise.canaveral.core.mock.MockCost;
 import pl.codewise.canaveral.core.mock.MockProvider;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
@@ -13,7 +14,6 @@ import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
-import static pl.codewise.canaveral.core.util.PropertyHelper.setProperty;
 
 public class PostgreSqlMockProvider implements MockProvider {
 
@@ -111,15 +111,15 @@ public class PostgreSqlMockProvider implements MockProvider {
         endpointUrl = container.getJdbcUrl();
 
         if (mockConfig.endpointProperty != null) {
-            setProperty(mockConfig.endpointProperty, endpointUrl);
+            context.getProperties().set(mockConfig.endpointProperty, endpointUrl);
         }
 
         if (mockConfig.userNameProperty != null) {
-            setProperty(mockConfig.userNameProperty, container.getUsername());
+            context.getProperties().set(mockConfig.userNameProperty, container.getUsername());
         }
 
         if (mockConfig.passwordProperty != null) {
-            setProperty(mockConfig.passwordProperty, container.getPassword());
+            context.getProperties().set(mockConfig.passwordProperty, container.getPassword());
         }
 
         jdbcManager = JdbcManager.create(endpointUrl, container.getUsername(), container.getPassword());
@@ -140,12 +140,18 @@ public class PostgreSqlMockProvider implements MockProvider {
         private String passwordProperty;
         private Map<String, String> envs = new HashMap<>();
         private Map<String, String> parameters = new HashMap<>();
+        private MockCost cost = MockCost.heavy().withThreads(2).withMemoryMb(256);
 
         @Override
         public PostgreSqlMockProvider build(String mockName) {
             return new PostgreSqlMockProvider(this, mockName);
         }
 
+        @Override
+        public MockCost getCost() {
+            return cost;
+        }
+
         public PostgresSqlMockConfig withDataBaseName(String database) {
             this.database = requireNonNull(database);
             return this;
@@ -171,6 +177,11 @@ public class PostgreSqlMockProvider implements MockProvider {
             return this;
         }
 
+        public PostgresSqlMockConfig withCost(MockCost cost) {
+            this.cost = requireNonNull(cost);
+            return this;
+        }
+
         public PostgresSqlMockConfig withEnvironmentVariable(String key, String value) {
             String prevValue = this.envs.putIfAbsent(key, value);
             if (prevValue != null) {
@@ -11,12 +11,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 
 import javax.sql.DataSource;
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class PostgreSqlMockProviderTest {
@@ -26,6 +28,8 @@ public class PostgreSqlMockProviderTest {
     @Mock
     private RunnerContext runnerContext;
 
+    private final ScopedProperties properties = new ScopedProperties();
+
     @AfterEach
     public void tearDown() {
         if (provider != null) {
@@ -44,6 +48,7 @@ public class PostgreSqlMockProviderTest {
                 .registerPasswordUnder("test.pass")
                 .withDataBaseName("a-test-db")
                 .build("psql-mock");
+        when(runnerContext.getProperties()).thenReturn(properties);
 
         // when
         provider.start(runnerContext);
@@ -51,17 +56,17 @@ public class PostgreSqlMockProviderTest {
         // then
         assertThat(provider.getEndpoint())
                 .isEqualTo("jdbc:postgresql://localhost:" + provider.getPort() + "/a-test-db");
-        assertThat(System.getProperty("test.endpoint")).isEqualTo(provider.getEndpoint());
+        assertThat(properties.get("test.endpoint")).isEqualTo(provider.getEndpoint());
 
         assertThat(provider.getUser())
                 .isNotNull()
                 .isNotBlank();
-        assertThat(System.getProperty("test.user")).isEqualTo(provider.getUser());
+        assertThat(properties.get("test.user")).isEqualTo(provider.getUser());
 
         assertThat(provider.getPassword())
                 .isNotNull()
                 .isNotBlank();
-        assertThat(System.getProperty("test.pass")).isEqualTo(provider.getPassword());
+        assertThat(properties.get("test.pass")).isEqualTo(provider.getPassword());
 
         JdbcTemplate jdbcTemplate = new JdbcTemplate(createDataSource(provider));
         jdbcTemplate.execute("CREATE TABLE TEST_TABLE(id uuid PRIMARY KEY)");
@@ -5,13 +5,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.GenericContainer;
 import pl.codewise.canaveral.core.mock.MockConfig;
+import pl.codewise.canaveral.core.mock.MockCost;
 import pl.codewise.canaveral.core.mock.MockProvider;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
 import java.time.Duration;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static pl.codewise.canaveral.core.util.PropertyHelper.setProperty;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 public class RedisMockProvider implements MockProvider {
 
@@ -64,8 +65,8 @@ public class RedisMockProvider implements MockProvider {
         this.port = server.getFirstMappedPort();
         this.host = server.getContainerIpAddress();
 
-        setProperty(mockConfig.portProperty, Integer.toString(port));
-        setProperty(mockConfig.hostProperty, getHost());
+        context.getProperties().set(mockConfig.portProperty, Integer.toString(port));
+        context.getProperties().set(mockConfig.hostProperty, getHost());
     }
 
     @Override
@@ -93,6 +94,7 @@ public class RedisMockProvider implements MockProvider {
         private String hostProperty;
         private String portProperty;
         private String image;
+        private MockCost cost = MockCost.heavy().withMemoryMb(64);
 
         private RedisMockConfig() {
         }
@@ -102,6 +104,11 @@ public class RedisMockProvider implements MockProvider {
             return new RedisMockProvider(this, mockName);
         }
 
+        @Override
+        public MockCost getCost() {
+            return cost;
+        }
+
         public RedisMockConfig registerHostUnder(String key) {
             hostProperty = key;
             return this;
@@ -117,5 +124,10 @@ public class RedisMockProvider implements MockProvider {
             this.image = image;
             return this;
         }
+
+        public RedisMockConfig withCost(MockCost cost) {
+            this.cost = checkNotNull(cost);
+            return this;
+        }
     }
 }
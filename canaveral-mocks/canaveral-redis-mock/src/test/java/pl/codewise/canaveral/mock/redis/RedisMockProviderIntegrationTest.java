@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 import redis.clients.jedis.Jedis;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -15,6 +16,8 @@ class RedisMockProviderIntegrationTest {
     @Mock
     private RunnerContext runnerContext;
 
+    private final ScopedProperties properties = new ScopedProperties();
+
     private RedisMockProvider redisMockProvider;
     private Jedis testClient;
 
@@ -22,6 +25,7 @@ class RedisMockProviderIntegrationTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
         when(runnerContext.getFreePort()).thenCallRealMethod();
+        when(runnerContext.getProperties()).thenReturn(properties);
 
         redisMockProvider = RedisMockProvider.newConfig()
                 .withRedisDockerImage("redis:3.0.6")
@@ -30,8 +34,8 @@ class RedisMockProviderIntegrationTest {
                 .build("redis-mock");
         redisMockProvider.start(runnerContext);
 
-        assertThat(System.getProperty("my-property.redis.host")).isEqualTo(redisMockProvider.getHost());
-        assertThat(System.getProperty("my-property.redis.port")).isEqualTo(redisMockProvider.getPort() + "");
+        assertThat(properties.get("my-property.redis.host")).isEqualTo(redisMockProvider.getHost());
+        assertThat(properties.get("my-property.redis.port")).isEqualTo(redisMockProvider.getPort() + "");
 
         testClient = new Jedis(redisMockProvider.getHost(), redisMockProvider.getPort(), false);
     }
@@ -2,6 +2,7 @@ package pl.codewise.canaveral.mock.s3;
 
 import org.joda.time.DateTime;
 
+import java.time.Clock;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -10,12 +11,26 @@ import java.util.stream.Collectors;
 
 class HashMapS3Storage {
 
+    private final Clock clock;
     private final Map<String, ConcurrentHashMap<String, S3MockObject>> storage = new HashMap<>();
+    private Map<String, ConcurrentHashMap<String, S3MockObject>> snapshot = new HashMap<>();
+
+    HashMapS3Storage() {
+        this(Clock.systemUTC());
+    }
+
+    HashMapS3Storage(Clock clock) {
+        this.clock = clock;
+    }
 
     synchronized Collection<String> listBuckets() {
         return storage.keySet().stream().sorted().collect(Collectors.toList());
     }
 
+    Clock getClock() {
+        return clock;
+    }
+
     synchronized Map<String, S3MockObject> listBucket(String bucketName) {
         return getBucket(bucketName);
     }
@@ -25,7 +40,7 @@ class HashMapS3Storage {
     }
 
     synchronized void put(String bucketName, String key, byte[] content) {
-        put(bucketName, key, content, DateTime.now());
+        put(bucketName, key, content, new DateTime(clock.millis()));
     }
 
     synchronized void put(String bucketName, String key, byte[] content, DateTime lastModified) {
@@ -40,6 +55,32 @@ class HashMapS3Storage {
         storage.values().forEach(Map::clear);
     }
 
+    /**
+     * Objects are immutable, so copying buckets is enough to capture whole storage.
+     */
+    synchronized void takeSnapshot() {
+        snapshot = copyOf(storage);
+    }
+
+    /**
+     * Restores buckets in place, so buckets already handed out, see {@link #listBucket(String)}, stay attached.
+     */
+    synchronized void restoreSnapshot() {
+        storage.keySet().retainAll(snapshot.keySet());
+        snapshot.forEach((bucketName, objects) -> {
+            Map<String, S3MockObject> bucket = getBucket(bucketName);
+            bucket.clear();
+            bucket.putAll(objects);
+        });
+    }
+
+    private static Map<String, ConcurrentHashMap<String, S3MockObject>> copyOf(
+            Map<String, ConcurrentHashMap<String, S3MockObject>> buckets) {
+        Map<String, ConcurrentHashMap<String, S3MockObject>> copy = new HashMap<>();
+        buckets.forEach((bucketName, bucket) -> copy.put(bucketName, new ConcurrentHashMap<>(bucket)));
+        return copy;
+    }
+
     private  synchronized Map<String, S3MockObject> getBucket(String bucketName) {
         return storage.computeIfAbsent(bucketName, k -> new ConcurrentHashMap<>());
     }
@@ -16,6 +16,7 @@ import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.runtime.jfr.CanaveralEvents;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -137,10 +138,12 @@ public class InMemoryS3Handler extends AbstractHandler {
             InMemoryS3Handler::handleGetBucket,
             InMemoryS3Handler::handleGetObject,
     };
+    private final String mockName;
     private final HashMapS3Storage s3MemoryStorage;
     private Pattern pattern;
 
-    InMemoryS3Handler(HashMapS3Storage s3MemoryStorage) {
+    InMemoryS3Handler(String mockName, HashMapS3Storage s3MemoryStorage) {
+        this.mockName = mockName;
         this.s3MemoryStorage = s3MemoryStorage;
         pattern = Pattern.compile(IPADDRESS_PATTERN);
     }
@@ -148,6 +151,16 @@ public class InMemoryS3Handler extends AbstractHandler {
     @Override
     public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
+        try (CanaveralEvents.MockRequest event = CanaveralEvents.mockRequest(mockName,
+                request.getMethod() + " " + request.getServerName() + request.getRequestURI())) {
+            handleRequest(baseRequest, request, response);
+            event.bytes(Math.max(request.getContentLengthLong(), 0),
+                    baseRequest.getResponse().getHttpOutput().getWritten());
+        }
+    }
+
+    private void handleRequest(Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
 
         Matcher matcher = pattern.matcher(request.getServerName());
         String bucket, key;
@@ -23,4 +23,11 @@ public interface S3Mock {
     int port();
 
     void clean();
+
+    /**
+     * Captures content of all buckets, so it can be brought back with {@link #restoreSnapshot()}.
+     */
+    void takeSnapshot();
+
+    void restoreSnapshot();
 }
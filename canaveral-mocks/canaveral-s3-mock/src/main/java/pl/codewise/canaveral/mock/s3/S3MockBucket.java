@@ -2,16 +2,24 @@ package pl.codewise.canaveral.mock.s3;
 
 import org.joda.time.DateTime;
 
+import java.time.Clock;
 import java.util.Map;
 
 public interface S3MockBucket {
 
     static S3MockBucket wrap(String bucketName, Map<String, S3MockObject> bucket) {
+        return wrap(bucketName, bucket, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock time of objects put without last modification time.
+     */
+    static S3MockBucket wrap(String bucketName, Map<String, S3MockObject> bucket, Clock clock) {
         return new S3MockBucket() {
 
             @Override
             public void put(String key, byte[] content) {
-                put(key, content, DateTime.now());
+                put(key, content, new DateTime(clock.millis()));
             }
 
             @Override
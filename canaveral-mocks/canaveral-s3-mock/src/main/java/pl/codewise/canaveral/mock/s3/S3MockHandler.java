@@ -17,8 +17,8 @@ class S3MockHandler extends InMemoryS3Handler {
 
     private static final Logger LOG = LoggerFactory.getLogger(S3MockHandler.class);
 
-    S3MockHandler(HashMapS3Storage s3MemoryStorage) {
-        super(s3MemoryStorage);
+    S3MockHandler(String mockName, HashMapS3Storage s3MemoryStorage) {
+        super(mockName, s3MemoryStorage);
     }
 
     @Override
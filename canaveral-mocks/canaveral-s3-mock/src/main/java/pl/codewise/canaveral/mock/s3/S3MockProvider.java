@@ -5,8 +5,9 @@ import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.codewise.canaveral.core.mock.LazyMockProvider;
 import pl.codewise.canaveral.core.mock.MockConfig;
-import pl.codewise.canaveral.core.mock.MockProvider;
+import pl.codewise.canaveral.core.mock.Snapshotable;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
 
 import java.io.IOException;
@@ -19,7 +20,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.io.ByteStreams.toByteArray;
 import static java.util.Collections.emptySet;
 
-public class S3MockProvider implements MockProvider {
+public class S3MockProvider implements LazyMockProvider, Snapshotable {
 
     private static final Logger log = LoggerFactory.getLogger(S3MockProvider.class);
 
@@ -60,11 +61,20 @@ public class S3MockProvider implements MockProvider {
 
     @Override
     public void start(RunnerContext context) {
+        prepare(context);
+        startPrepared(context);
+    }
+
+    @Override
+    public void prepare(RunnerContext context) {
         this.port = context.getFreePort();
 
-        System.setProperty(s3MockConfig.endpointProperty, getEndpoint());
+        context.getProperties().set(s3MockConfig.endpointProperty, getEndpoint());
+    }
 
-        s3MockServer = S3MockServer.start(s3MockConfig.host, port, s3MockConfig.buckets);
+    @Override
+    public void startPrepared(RunnerContext context) {
+        s3MockServer = S3MockServer.start(getMockName(), s3MockConfig.host, port, context.getClock());
         loadDefaults();
     }
 
@@ -90,6 +100,16 @@ public class S3MockProvider implements MockProvider {
         loadDefaults();
     }
 
+    @Override
+    public void takeSnapshot() {
+        s3MockServer.takeSnapshot();
+    }
+
+    @Override
+    public void restoreSnapshot() {
+        s3MockServer.restoreSnapshot();
+    }
+
     private void loadDefaults() {
         for (S3Entry entry : s3MockConfig.entries) {
             try (InputStream is = getClass().getResourceAsStream(entry.getPathToResource())) {
@@ -7,8 +7,7 @@ import org.slf4j.LoggerFactory;
 import pl.codewise.canaveral.core.runtime.dns.LocalManagedDnsService;
 import pl.codewise.canaveral.core.runtime.dns.NameStore;
 
-import java.util.Collection;
-import java.util.Set;
+import java.time.Clock;
 import java.util.stream.Collectors;
 
 public class S3MockServer implements S3Mock {
@@ -19,12 +18,12 @@ public class S3MockServer implements S3Mock {
     private final int port;
     private final HashMapS3Storage s3MemoryStorage;
 
-    private S3MockServer(int port) {
-        this.s3MemoryStorage = new HashMapS3Storage();
+    private S3MockServer(String mockName, int port, Clock clock) {
+        this.s3MemoryStorage = new HashMapS3Storage(clock);
         this.port = port;
         this.server = new Server(port);
 
-        server.setHandler(new S3MockHandler(s3MemoryStorage));
+        server.setHandler(new S3MockHandler(mockName, s3MemoryStorage));
         try {
             start();
         } catch (Exception e) {
@@ -32,9 +31,9 @@ public class S3MockServer implements S3Mock {
         }
     }
 
-    static S3Mock start(String host, int port, Set<String> buckets) {
-        setupDns(host, buckets);
-        return new S3MockServer(port);
+    static S3Mock start(String mockName, String host, int port, Clock clock) {
+        setupDns(host);
+        return new S3MockServer(mockName, port, clock);
     }
 
     public void start() throws Exception {
@@ -60,6 +59,16 @@ public class S3MockServer implements S3Mock {
         s3MemoryStorage.clear();
     }
 
+    @Override
+    public void takeSnapshot() {
+        s3MemoryStorage.takeSnapshot();
+    }
+
+    @Override
+    public void restoreSnapshot() {
+        s3MemoryStorage.restoreSnapshot();
+    }
+
     @Override
     public S3MockObject get(String bucketName, String key) {
         return s3MemoryStorage.get(bucketName, key);
@@ -82,7 +91,7 @@ public class S3MockServer implements S3Mock {
 
     @Override
     public S3MockBucket getBucket(String bucketName) {
-        return S3MockBucket.wrap(bucketName, s3MemoryStorage.listBucket(bucketName));
+        return S3MockBucket.wrap(bucketName, s3MemoryStorage.listBucket(bucketName), s3MemoryStorage.getClock());
     }
 
     @Override
@@ -92,12 +101,12 @@ public class S3MockServer implements S3Mock {
                 .collect(Collectors.toList());
     }
 
-    private static void setupDns(String host, Collection<String> buckets) {
+    /**
+     * Routes all virtual-hosted bucket names, including buckets created later by the application.
+     */
+    private static void setupDns(String host) {
         log.debug("Setting up DNS - started");
-        NameStore nameStore = NameStore.getInstance();
-        for (String bucket : buckets) {
-            nameStore.loopback(bucket + "." + host);
-        }
+        NameStore.getInstance().loopback("*." + host);
         LocalManagedDnsService.installService(false);
         log.debug("Setting up DNS - finished");
     }
@@ -132,4 +132,23 @@ class HashMapS3StorageTest {
         S3MockObject mockObject = storage.get(BUCKET_NAME, KEY);
         assertThat(mockObject).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRestoreSnapshotIntoBucketsListedBefore() {
+        // given
+        storage.put(BUCKET_NAME, KEY, CONTENT);
+        storage.takeSnapshot();
+        Map<String, S3MockObject> bucket = storage.listBucket(BUCKET_NAME);
+        storage.put(BUCKET_NAME, OTHER_KEY, OTHER_CONTENT);
+        storage.put(OTHER_BUCKET, OTHER_KEY, OTHER_CONTENT);
+
+        // when
+        storage.restoreSnapshot();
+        bucket.put(OTHER_KEY, S3MockObject.from(OTHER_KEY, OTHER_CONTENT, null));
+
+        // then
+        assertThat(storage.listBuckets()).containsOnly(BUCKET_NAME);
+        assertThat(storage.get(BUCKET_NAME, KEY).content()).isEqualTo(CONTENT);
+        assertThat(storage.get(BUCKET_NAME, OTHER_KEY).content()).isEqualTo(OTHER_CONTENT);
+    }
+}
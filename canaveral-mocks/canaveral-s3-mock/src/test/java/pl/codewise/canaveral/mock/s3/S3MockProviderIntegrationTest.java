@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -34,12 +35,15 @@ class S3MockProviderIntegrationTest {
     @Mock
     private RunnerContext runnerContext;
 
+    private final ScopedProperties properties = new ScopedProperties();
+
     private AmazonS3 s3;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
         when(runnerContext.getFreePort()).thenCallRealMethod();
+        when(runnerContext.getProperties()).thenReturn(properties);
 
         s3MockProvider = S3MockProvider.newConfig()
                 .registerEndpointUnder("foo.bar")
@@ -64,7 +68,7 @@ class S3MockProviderIntegrationTest {
     @Test
     void shouldSystemPropertyWithEndpointBeSet() {
         // when
-        String endpoint = System.getProperty("foo.bar");
+        String endpoint = properties.get("foo.bar");
 
         // then
         assertThat(endpoint)
@@ -148,6 +152,21 @@ class S3MockProviderIntegrationTest {
         assertThat(objectListing.getObjectSummaries()).extracting("key").containsOnly(INIT_KEY);
     }
 
+    @Test
+    void shouldRestoreSnapshot() {
+        // given
+        s3MockProvider.takeSnapshot();
+        s3.putObject(OTHER_BUCKET, "aFile", "aContent");
+        s3MockProvider.getS3Mock().delete(INIT_BUCKET, INIT_KEY);
+
+        // when
+        s3MockProvider.restoreSnapshot();
+
+        // then
+        assertThat(s3.listObjects(INIT_BUCKET).getObjectSummaries()).extracting("key").containsOnly(INIT_KEY);
+        assertThat(s3.listObjects(OTHER_BUCKET).getObjectSummaries()).isEmpty();
+    }
+
     @Test
     void shouldDeleteObject() {
         // when
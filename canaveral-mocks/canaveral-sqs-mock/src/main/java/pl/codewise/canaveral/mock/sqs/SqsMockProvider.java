@@ -1,8 +1,6 @@
 package pl.codewise.canaveral.mock.sqs;
 
 import com.google.common.base.MoreObjects;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import pl.codewise.canaveral.core.mock.MockConfig;
 import pl.codewise.canaveral.core.mock.MockProvider;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
@@ -15,12 +13,9 @@ import java.util.Set;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
-import static java.lang.System.getProperty;
 
 public class SqsMockProvider implements MockProvider {
 
-    private static final Logger log = LoggerFactory.getLogger(SqsMockProvider.class);
-
     private final SqsMockConfig mockConfig;
     private final String mockName;
     private int port = 0;
@@ -63,19 +58,12 @@ public class SqsMockProvider implements MockProvider {
 
         sqsMockServer.start();
 
-        mockConfig.portProperties.forEach(property -> {
-            System.setProperty(property, Integer.toString(getPort()));
-            log.info("Setting system property {} to {}.", property, getProperty(property));
-        });
-        mockConfig.endpointProperties.forEach(property -> {
-            System.setProperty(property, getEndpoint());
-            log.info("Setting system property {} to {}.", property, getProperty(property));
-        });
+        context.getProperties().set(mockConfig.portProperties, Integer.toString(getPort()));
+        context.getProperties().set(mockConfig.endpointProperties, getEndpoint());
         mockConfig.queueConfigs.forEach(queueConfig -> {
             SqsClient sqsClient = new SqsClient(port);
             SqsQueueClient queueClient = sqsClient.createQueue(queueConfig.getQueueName());
-            System.setProperty(queueConfig.getProperty(), queueClient.getQueueUrl());
-            log.info("Setting system property {} to {}.", queueConfig.property, getProperty(queueConfig.property));
+            context.getProperties().set(queueConfig.getProperty(), queueClient.getQueueUrl());
         });
     }
 
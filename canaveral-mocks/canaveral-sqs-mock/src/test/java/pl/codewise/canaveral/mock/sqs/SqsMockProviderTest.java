@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
+import pl.codewise.canaveral.core.runtime.ScopedProperties;
 import pl.codewise.canaveral.mock.sqs.SqsMockProvider.QueueConfig;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +30,8 @@ class SqsMockProviderTest {
     @Mock
     private RunnerContext runnerContext;
 
+    private final ScopedProperties properties = new ScopedProperties();
+
     private QueueConfig queueConfig = QueueConfig.builder()
             .withQueueName(QUEUE_NAME)
             .withProperty(QUEUE_ENDPOINT_PROPERTY)
@@ -43,6 +46,7 @@ class SqsMockProviderTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
         when(runnerContext.getFreePort()).thenCallRealMethod();
+        when(runnerContext.getProperties()).thenReturn(properties);
 
         sqsMockProvider.start(runnerContext);
     }
@@ -50,7 +54,7 @@ class SqsMockProviderTest {
     @Test
     void shouldRegisterSqsMockPortProperty() {
         // when
-        int mockPort = Integer.valueOf(System.getProperty(MOCK_PORT_PROPERTY));
+        int mockPort = Integer.valueOf(properties.get(MOCK_PORT_PROPERTY));
 
         // then
         assertThat(mockPort).isEqualTo(sqsMockProvider.getPort());
@@ -59,7 +63,7 @@ class SqsMockProviderTest {
     @Test
     void shouldRegisterSqsMockEndpointProperty() {
         // when
-        String mockEndpoint = System.getProperty(MOCK_ENDPOINT_PROPERTY);
+        String mockEndpoint = properties.get(MOCK_ENDPOINT_PROPERTY);
 
         // then
         assertThat(mockEndpoint)
@@ -73,7 +77,7 @@ class SqsMockProviderTest {
         String queueName = getQueueUrl(sqsMockProvider, queueConfig);
 
         // when
-        String queueEndpoint = System.getProperty(QUEUE_ENDPOINT_PROPERTY);
+        String queueEndpoint = properties.get(QUEUE_ENDPOINT_PROPERTY);
 
         // then
         assertThat(queueEndpoint)
@@ -1,7 +1,9 @@
 package pl.codewise.canaveral.runner.junit4;
 
 import junitparams.JUnitParamsRunner;
+import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
 import pl.codewise.canaveral.core.runtime.Runner;
 import pl.codewise.canaveral.core.runtime.TestInstanceHelper;
 
@@ -26,4 +28,58 @@ public class JUnit4CanaveralRunner extends JUnitParamsRunner {
         Object testInstance = super.createTest();
         return testInstanceHelper.initializeTestInstance(testInstance);
     }
+
+    @Override
+    protected Statement withBeforeClasses(Statement statement) {
+        Statement next = super.withBeforeClasses(statement);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                testInstanceHelper.beforeTestClass(getTestClass().getJavaClass());
+                next.evaluate();
+            }
+        };
+    }
+
+    @Override
+    protected Statement withAfterClasses(Statement statement) {
+        Statement next = super.withAfterClasses(statement);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    next.evaluate();
+                } finally {
+                    testInstanceHelper.afterTestClass(getTestClass().getJavaClass());
+                }
+            }
+        };
+    }
+
+    @Override
+    protected Statement withBefores(FrameworkMethod method, Object target, Statement statement) {
+        Statement next = super.withBefores(method, target, statement);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                testInstanceHelper.beforeTestMethod(target, method.getMethod());
+                next.evaluate();
+            }
+        };
+    }
+
+    @Override
+    protected Statement withAfters(FrameworkMethod method, Object target, Statement statement) {
+        Statement next = super.withAfters(method, target, statement);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    next.evaluate();
+                } finally {
+                    testInstanceHelper.afterTestMethod(target, method.getMethod());
+                }
+            }
+        };
+    }
 }
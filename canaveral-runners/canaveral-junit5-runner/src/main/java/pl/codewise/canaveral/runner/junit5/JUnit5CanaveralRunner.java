@@ -1,16 +1,21 @@
 package pl.codewise.canaveral.runner.junit5;
 
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
 import org.junit.jupiter.api.extension.TestInstancePostProcessor;
 import pl.codewise.canaveral.core.runtime.Runner;
 import pl.codewise.canaveral.core.runtime.TestInstanceHelper;
 
-public class JUnit5CanaveralRunner implements BeforeAllCallback, TestInstancePostProcessor {
+public class JUnit5CanaveralRunner implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback,
+        AfterEachCallback, TestInstancePostProcessor {
 
     private static final Namespace IT_EXTENSION = Namespace.create(new Object());
     private static final String IT_RUNTIME = "IT_RUNTIME";
+    private static final String TEST_INSTANCE_HELPER = "TEST_INSTANCE_HELPER";
 
     @Override
     public void beforeAll(ExtensionContext context) {
@@ -19,13 +24,38 @@ public class JUnit5CanaveralRunner implements BeforeAllCallback, TestInstancePos
             runner = Runner.instance();
             getStore(context).put(IT_RUNTIME, runner);
         }
+        getTestInstanceHelper(context).beforeTestClass(context.getRequiredTestClass());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        getTestInstanceHelper(context).afterTestClass(context.getRequiredTestClass());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        getTestInstanceHelper(context).beforeTestMethod(context.getRequiredTestInstance(),
+                context.getRequiredTestMethod());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        getTestInstanceHelper(context).afterTestMethod(context.getRequiredTestInstance(),
+                context.getRequiredTestMethod());
     }
 
     @Override
     public void postProcessTestInstance(Object testInstance, ExtensionContext context) {
+        getTestInstanceHelper(context).initializeTestInstance(testInstance);
+    }
+
+    /**
+     * Configures runner once per test class, method contexts find the helper in the store of their class.
+     */
+    private TestInstanceHelper getTestInstanceHelper(ExtensionContext context) {
         Runner runner = getStore(context).get(IT_RUNTIME, Runner.class);
-        TestInstanceHelper testInstanceHelper = runner.configureRunnerForTest(testInstance.getClass());
-        testInstanceHelper.initializeTestInstance(testInstance);
+        return context.getStore(IT_EXTENSION).getOrComputeIfAbsent(TEST_INSTANCE_HELPER,
+                key -> runner.configureRunnerForTest(context.getRequiredTestClass()), TestInstanceHelper.class);
     }
 
     private ExtensionContext.Store getStore(ExtensionContext context) {
@@ -34,4 +64,3 @@ public class JUnit5CanaveralRunner implements BeforeAllCallback, TestInstancePos
                 .getStore(IT_EXTENSION);
     }
 }
-    
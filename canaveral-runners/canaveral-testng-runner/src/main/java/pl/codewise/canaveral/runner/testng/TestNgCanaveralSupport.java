@@ -1,16 +1,54 @@
 package pl.codewise.canaveral.runner.testng;
 
+import com.google.common.collect.MapMaker;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
 import pl.codewise.canaveral.core.runtime.Runner;
 import pl.codewise.canaveral.core.runtime.TestInstanceHelper;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+
 public interface TestNgCanaveralSupport {
 
     Runner RUNNER = Runner.instance();
 
+    /**
+     * Keyed by test instance, compared by identity, as {@code @Factory} and parallel instances share test class.
+     */
+    Map<Object, TestInstanceHelper> HELPERS = new MapMaker().weakKeys().makeMap();
+
     @BeforeClass(alwaysRun = true)
     default void configureInstance() {
         TestInstanceHelper testInstanceHelper = RUNNER.configureRunnerForTest(this.getClass());
+        HELPERS.put(this, testInstanceHelper);
+        testInstanceHelper.beforeTestClass(this.getClass());
         testInstanceHelper.initializeTestInstance(this);
     }
+
+    @AfterClass(alwaysRun = true)
+    default void afterTestClass() {
+        TestInstanceHelper testInstanceHelper = HELPERS.remove(this);
+        if (testInstanceHelper != null) {
+            testInstanceHelper.afterTestClass(this.getClass());
+        }
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    default void beforeTestMethod(Method testMethod) {
+        TestInstanceHelper testInstanceHelper = HELPERS.get(this);
+        if (testInstanceHelper != null) {
+            testInstanceHelper.beforeTestMethod(this, testMethod);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    default void afterTestMethod(Method testMethod) {
+        TestInstanceHelper testInstanceHelper = HELPERS.get(this);
+        if (testInstanceHelper != null) {
+            testInstanceHelper.afterTestMethod(this, testMethod);
+        }
+    }
 }
@@ -4,7 +4,6 @@ import pl.codewise.canaveral.core.mock.MockConfig;
 import pl.codewise.canaveral.core.mock.SimpleMockProvider;
 import pl.codewise.canaveral.core.runtime.LifeCycleListener;
 import pl.codewise.canaveral.core.runtime.RunnerContext;
-import pl.codewise.canaveral.core.util.PropertyHelper;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -22,13 +21,13 @@ class DummyMockProvider extends SimpleMockProvider implements LifeCycleListener
 
     @Override
     public void initialize(RunnerContext context) {
-        PropertyHelper.setProperty("com.test.property", "test");
-        PropertyHelper.setProperties(Collections.singleton("com.test.app.property"), "true");
-        PropertyHelper.setProperties(
+        context.getProperties().set("com.test.property", "test");
+        context.getProperties().set(Collections.singleton("com.test.app.property"), "true");
+        context.getProperties().set(
                 Arrays.asList(
                         "com.test.mock.port.property",
                         "com.test.mock2.port.property"),
-                2931);
+                "2931");
         context.register(this);
     }
 
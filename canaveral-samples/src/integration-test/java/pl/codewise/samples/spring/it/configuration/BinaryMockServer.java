@@ -22,8 +22,12 @@ public class BinaryMockServer implements AutoCloseable {
     private int port;
 
     public BinaryMockServer(int port) throws IOException {
-        this.port = port;
-        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this(new ServerSocket(port, 0, InetAddress.getLoopbackAddress()));
+    }
+
+    public BinaryMockServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.port = serverSocket.getLocalPort();
         executorService = Executors.newFixedThreadPool(10,
                 new ThreadFactoryBuilder()
                         .setDaemon(false)
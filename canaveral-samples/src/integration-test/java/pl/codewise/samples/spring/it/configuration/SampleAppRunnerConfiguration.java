@@ -51,7 +51,7 @@ public class SampleAppRunnerConfiguration implements RunnerConfigurationProvider
 
     private MockProviderAdapter<BinaryMockServer> adaptBinaryServer(String name) {
         return new MockProviderAdapter<BinaryMockServer>(name,
-                runnerContext -> new BinaryMockServer(runnerContext.getFreePort())) {
+                runnerContext -> new BinaryMockServer(runnerContext.getBoundServerSocketChannel().socket())) {
             @Override
             protected int initialize(RunnerContext context) {
                 providedMock().start();